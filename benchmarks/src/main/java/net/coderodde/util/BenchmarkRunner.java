@@ -0,0 +1,32 @@
+package net.coderodde.util;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * This class runs the benchmarks with the GC profiler attached, which reports
+ * the allocation rate and the number of allocated bytes per operation next to
+ * the running times. The arguments are ordinary JMH command line options; for
+ * example, {@code BenchmarkRunner SortBenchmark -p size=1000,100000} runs the
+ * end-to-end benchmarks on the two smaller sizes only.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws CommandLineOptionException,
+                                                  RunnerException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
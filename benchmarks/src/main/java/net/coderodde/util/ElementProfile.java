@@ -0,0 +1,123 @@
+package net.coderodde.util;
+
+import java.util.Comparator;
+
+/**
+ * This enumeration lists the element types of the benchmark inputs together
+ * with their comparators, from a cheap natural order to a key extracting
+ * lambda. The natural orders are passed as {@code null} comparators, so that
+ * every sort takes its own natural order path.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public enum ElementProfile {
+
+    /**
+     * {@link Integer} elements in their natural order.
+     */
+    INTEGER {
+        @Override
+        Object[] createElements(int[] keys) {
+            Object[] elements = new Object[keys.length];
+
+            for (int i = 0; i < keys.length; ++i) {
+                elements[i] = keys[i];
+            }
+
+            return elements;
+        }
+
+        @Override
+        Comparator<Object> comparator() {
+            return null;
+        }
+    },
+
+    /**
+     * Zero-padded decimal {@link String} elements in their natural order,
+     * which costs a character-wise comparison.
+     */
+    STRING {
+        @Override
+        Object[] createElements(int[] keys) {
+            Object[] elements = new Object[keys.length];
+
+            for (int i = 0; i < keys.length; ++i) {
+                elements[i] = String.format("%010d", keys[i]);
+            }
+
+            return elements;
+        }
+
+        @Override
+        Comparator<Object> comparator() {
+            return null;
+        }
+    },
+
+    /**
+     * Record elements compared by a key extracting lambda.
+     */
+    KEY_LAMBDA {
+        @Override
+        Object[] createElements(int[] keys) {
+            Object[] elements = new Object[keys.length];
+
+            for (int i = 0; i < keys.length; ++i) {
+                elements[i] = new Item(keys[i]);
+            }
+
+            return elements;
+        }
+
+        @Override
+        Comparator<Object> comparator() {
+            return Comparator.comparingInt(o -> ((Item) o).key);
+        }
+    };
+
+    /**
+     * Creates the elements for the given keys.
+     *
+     * @param keys the keys.
+     * @return the elements.
+     */
+    abstract Object[] createElements(int[] keys);
+
+    /**
+     * Returns the comparator of the elements, or {@code null} for the natural
+     * order.
+     *
+     * @return the comparator.
+     */
+    abstract Comparator<Object> comparator();
+
+    /**
+     * Returns the comparator of the elements, substituting the natural order
+     * comparator of {@link HeapSelectionSort} for {@code null}. This is for
+     * the benchmarks driving the internals, which take no {@code null}
+     * comparator.
+     *
+     * @return the non-{@code null} comparator.
+     */
+    @SuppressWarnings("unchecked")
+    Comparator<Object> explicitComparator() {
+        Comparator<Object> comparator = comparator();
+        return comparator != null ?
+                comparator :
+                (Comparator<Object>) HeapSelectionSort.NATURAL_COMPARATOR;
+    }
+
+    /**
+     * The element type of {@link #KEY_LAMBDA}.
+     */
+    static final class Item {
+
+        final int key;
+
+        Item(int key) {
+            this.key = key;
+        }
+    }
+}
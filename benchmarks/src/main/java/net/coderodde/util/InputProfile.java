@@ -0,0 +1,118 @@
+package net.coderodde.util;
+
+import java.util.Random;
+import net.coderodde.util.workload.WorkloadGenerator;
+import net.coderodde.util.workload.WorkloadSpec;
+
+/**
+ * This enumeration lists the run structures of the benchmark inputs. Each
+ * profile creates an array of {@code int} keys, which
+ * {@link ElementProfile} then turns into the objects being sorted.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public enum InputProfile {
+
+    /**
+     * A single ascending run.
+     */
+    SORTED {
+        @Override
+        int[] createKeys(int size, int runs, Random random) {
+            int[] keys = new int[size];
+
+            for (int i = 0; i < size; ++i) {
+                keys[i] = i;
+            }
+
+            return keys;
+        }
+    },
+
+    /**
+     * A single strictly descending run.
+     */
+    REVERSED {
+        @Override
+        int[] createKeys(int size, int runs, Random random) {
+            int[] keys = new int[size];
+
+            for (int i = 0; i < size; ++i) {
+                keys[i] = size - i;
+            }
+
+            return keys;
+        }
+    },
+
+    /**
+     * {@code runs} ascending runs of (almost) equal length, generated by
+     * {@link WorkloadGenerator}.
+     */
+    RUNS {
+        @Override
+        int[] createKeys(int size, int runs, Random random) {
+            return WorkloadGenerator.generateKeys(
+                    WorkloadSpec.ofLength(size)
+                                .withRuns(runs)
+                                .withSeed(random.nextLong()));
+        }
+    },
+
+    /**
+     * A random permutation, generated by {@link WorkloadGenerator}.
+     */
+    RANDOM {
+        @Override
+        int[] createKeys(int size, int runs, Random random) {
+            return WorkloadGenerator.generateKeys(
+                    WorkloadSpec.ofLength(size)
+                                .withRuns(Math.max(1, size))
+                                .withSeed(random.nextLong()));
+        }
+    },
+
+    /**
+     * {@code runs} identical ascending ramps.
+     */
+    SAWTOOTH {
+        @Override
+        int[] createKeys(int size, int runs, Random random) {
+            int[] keys = new int[size];
+            int toothLength = Math.max(1, size / runs);
+
+            for (int i = 0; i < size; ++i) {
+                keys[i] = i % toothLength;
+            }
+
+            return keys;
+        }
+    },
+
+    /**
+     * An ascending first half followed by a descending second half.
+     */
+    ORGAN_PIPE {
+        @Override
+        int[] createKeys(int size, int runs, Random random) {
+            int[] keys = new int[size];
+
+            for (int i = 0; i < size; ++i) {
+                keys[i] = Math.min(i, size - 1 - i);
+            }
+
+            return keys;
+        }
+    };
+
+    /**
+     * Creates the keys of an input of this profile.
+     *
+     * @param size   the length of the input.
+     * @param runs   the number of runs, where the profile has a parameter.
+     * @param random the random number generator.
+     * @return the keys.
+     */
+    abstract int[] createKeys(int size, int runs, Random random);
+}
@@ -0,0 +1,128 @@
+package net.coderodde.util;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class compares the merge engines of {@link HeapSelectionSort}, the run
+ * heap with bottom-up sift down and the 4-ary and 8-ary run heaps on inputs
+ * consisting of a given number of ascending runs. Next to the running time,
+ * the {@link Comparisons} auxiliary counters report the comparator calls and
+ * the sorts of each iteration; their ratio is the number of comparator calls
+ * per sort.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MergeEngineBenchmark {
+
+    /**
+     * The merge engine configurations under comparison.
+     */
+    public enum Engine {
+
+        RUN_HEAP(SortOptions.DEFAULT),
+
+        LOSER_TREE(SortOptions.DEFAULT.withMergeEngine(
+                SortOptions.MergeEngine.LOSER_TREE)),
+
+        CACHED_HEAD_RUN_HEAP(SortOptions.DEFAULT.withMergeEngine(
+                SortOptions.MergeEngine.CACHED_HEAD_RUN_HEAP)),
+
+        BOTTOM_UP_RUN_HEAP(SortOptions.DEFAULT.withBottomUpSiftDown(true)),
+
+        QUATERNARY_RUN_HEAP(SortOptions.DEFAULT.withHeapArity(4)),
+
+        OCTONARY_RUN_HEAP(SortOptions.DEFAULT.withHeapArity(8));
+
+        final SortOptions options;
+
+        Engine(SortOptions options) {
+            this.options = options;
+        }
+    }
+
+    /**
+     * The comparator call counters. JMH reports the totals of each iteration.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Comparisons {
+
+        public long comparisons;
+        public long sorts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            comparisons = 0L;
+            sorts = 0L;
+        }
+    }
+
+    @Param("1000000")
+    int size;
+
+    @Param({"2", "16", "256", "4096", "65536", "500000"})
+    int runs;
+
+    @Param({"RUN_HEAP",
+            "LOSER_TREE",
+            "CACHED_HEAD_RUN_HEAP",
+            "BOTTOM_UP_RUN_HEAP",
+            "QUATERNARY_RUN_HEAP",
+            "OCTONARY_RUN_HEAP"})
+    Engine engine;
+
+    @Param("INTEGER")
+    ElementProfile element;
+
+    @Param("13")
+    long seed;
+
+    private Object[] input;
+    private Object[] array;
+    private Comparator<Object> comparator;
+
+    @Setup
+    public void setup() {
+        int[] keys = InputProfile.RUNS.createKeys(size,
+                                                  runs,
+                                                  new Random(seed));
+        input = element.createElements(keys);
+        array = new Object[size];
+        comparator = element.explicitComparator();
+    }
+
+    @Benchmark
+    public Object[] sort(Comparisons counters) {
+        System.arraycopy(input, 0, array, 0, size);
+        HeapSelectionSort.sort(array,
+                               (o1, o2) -> {
+                                   counters.comparisons++;
+                                   return comparator.compare(o1, o2);
+                               },
+                               engine.options);
+        counters.sorts++;
+        return array;
+    }
+}
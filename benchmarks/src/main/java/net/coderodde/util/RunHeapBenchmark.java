@@ -0,0 +1,112 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the two phases of heap selection sort separately:
+ * splitting the input into runs by {@link HeapSelectionSort.RunHeapBuilder},
+ * and heapifying and draining the resulting {@link HeapSelectionSort.RunHeap}.
+ * The benchmark lives in the package of the library in order to reach the
+ * package-private classes.
+ * <p>
+ * The drain benchmark rebuilds the run heap before each invocation in the
+ * separate {@link DrainState}, so its small sizes carry the timer overhead of
+ * JMH; the build benchmark has no per-invocation set-up.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class RunHeapBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    @Param({"SORTED", "REVERSED", "RUNS", "RANDOM", "SAWTOOTH", "ORGAN_PIPE"})
+    InputProfile profile;
+
+    @Param("INTEGER")
+    ElementProfile element;
+
+    /**
+     * The number of runs of the {@code RUNS} and {@code SAWTOOTH} profiles.
+     */
+    @Param("16")
+    int runs;
+
+    @Param("13")
+    long seed;
+
+    private Object[] input;
+    private Comparator<Object> comparator;
+
+    /**
+     * The state of the drain benchmark, holding a freshly built run heap.
+     */
+    @State(Scope.Thread)
+    public static class DrainState {
+
+        private Object[] output;
+        private HeapSelectionSort.RunHeap<Object> runHeap;
+
+        @Setup
+        public void setup(RunHeapBenchmark benchmark) {
+            output = new Object[benchmark.size];
+        }
+
+        @Setup(Level.Invocation)
+        public void buildRunHeap(RunHeapBenchmark benchmark) {
+            Object[] aux = benchmark.input.clone();
+            runHeap = new HeapSelectionSort.RunHeapBuilder<>(
+                    aux,
+                    benchmark.comparator).build();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        int[] keys = profile.createKeys(size, runs, new Random(seed));
+        input = element.createElements(keys);
+        comparator = element.explicitComparator();
+    }
+
+    @Benchmark
+    public HeapSelectionSort.RunHeap<Object> build() {
+        Object[] array = Arrays.copyOf(input, input.length);
+        return new HeapSelectionSort.RunHeapBuilder<>(array, comparator)
+                                    .build();
+    }
+
+    @Benchmark
+    public Object[] heapifyAndDrain(DrainState state) {
+        HeapSelectionSort.RunHeap<Object> runHeap = state.runHeap;
+        Object[] output = state.output;
+        runHeap.heapify();
+
+        for (int i = 0; i < output.length; ++i) {
+            output[i] = runHeap.popHead();
+        }
+
+        return output;
+    }
+}
@@ -0,0 +1,95 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks {@link HeapSelectionSort#sort(Object[], Comparator)}
+ * end to end against {@link Arrays#sort(Object[], Comparator)} and
+ * {@link Collections#sort(List, Comparator)}. Every benchmark sorts a fresh
+ * copy of the input; {@link #copy()} measures the copying alone.
+ * <p>
+ * The largest sizes need a big heap; the forks run with {@code -Xmx8g}. Pick
+ * the sizes with {@code -p size=...} on smaller machines.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SortBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000", "100000000"})
+    int size;
+
+    @Param({"SORTED", "REVERSED", "RUNS", "RANDOM", "SAWTOOTH", "ORGAN_PIPE"})
+    InputProfile profile;
+
+    @Param({"INTEGER", "STRING", "KEY_LAMBDA"})
+    ElementProfile element;
+
+    /**
+     * The number of runs of the {@code RUNS} and {@code SAWTOOTH} profiles.
+     */
+    @Param("16")
+    int runs;
+
+    @Param("13")
+    long seed;
+
+    private Object[] input;
+    private Comparator<Object> comparator;
+
+    @Setup
+    public void setup() {
+        int[] keys = profile.createKeys(size, runs, new Random(seed));
+        input = element.createElements(keys);
+        comparator = element.comparator();
+    }
+
+    @Benchmark
+    public Object[] copy() {
+        return input.clone();
+    }
+
+    @Benchmark
+    public Object[] heapSelectionSort() {
+        Object[] array = input.clone();
+        HeapSelectionSort.sort(array, comparator);
+        return array;
+    }
+
+    @Benchmark
+    public Object[] arraysSort() {
+        Object[] array = input.clone();
+        Arrays.sort(array, comparator);
+        return array;
+    }
+
+    @Benchmark
+    public List<Object> collectionsSort() {
+        List<Object> list = new ArrayList<>(Arrays.asList(input));
+        Collections.sort(list, comparator);
+        return list;
+    }
+}
@@ -0,0 +1,83 @@
+package net.coderodde.util;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks a reused {@link HeapSelectionSorter} against the
+ * static {@link HeapSelectionSort#sort(Object[], Comparator)} on the small and
+ * medium arrays typical of request handling code. The input is copied into a
+ * preallocated array before every sort, so the allocations reported by the
+ * GC profiler are those of the sort alone. Run it through
+ * {@link BenchmarkRunner} and compare the {@code gc.alloc.rate.norm} columns;
+ * the warmed-up sorter should report zero bytes per operation.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SorterBenchmark {
+
+    @Param({"10", "100", "1000", "100000"})
+    int size;
+
+    @Param({"SORTED", "RUNS", "RANDOM"})
+    InputProfile profile;
+
+    @Param("INTEGER")
+    ElementProfile element;
+
+    /**
+     * The number of runs of the {@code RUNS} profile.
+     */
+    @Param("16")
+    int runs;
+
+    @Param("13")
+    long seed;
+
+    private Object[] input;
+    private Object[] array;
+    private Comparator<Object> comparator;
+    private HeapSelectionSorter<Object> sorter;
+
+    @Setup
+    public void setup() {
+        int[] keys = profile.createKeys(size, runs, new Random(seed));
+        input = element.createElements(keys);
+        array = new Object[size];
+        comparator = element.comparator();
+        sorter = new HeapSelectionSorter<>(comparator);
+    }
+
+    @Benchmark
+    public Object[] staticSort() {
+        System.arraycopy(input, 0, array, 0, size);
+        HeapSelectionSort.sort(array, comparator);
+        return array;
+    }
+
+    @Benchmark
+    public Object[] reusedSorter() {
+        System.arraycopy(input, 0, array, 0, size);
+        sorter.sort(array);
+        return array;
+    }
+}
@@ -0,0 +1,89 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import net.coderodde.util.workload.KeyType;
+import net.coderodde.util.workload.RunLengthDistribution;
+import net.coderodde.util.workload.WorkloadGenerator;
+import net.coderodde.util.workload.WorkloadSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks {@link HeapSelectionSort#sort(Object[])} against
+ * {@link Arrays#sort(Object[])} on workloads described by the knobs of
+ * {@link WorkloadSpec}. The same parameters produce the same input in every
+ * version, which makes the scores comparable across versions.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class WorkloadBenchmark {
+
+    @Param("1000000")
+    int size;
+
+    @Param({"1", "16", "1024", "65536"})
+    int runs;
+
+    @Param("EQUAL")
+    RunLengthDistribution distribution;
+
+    @Param({"0.0", "0.5"})
+    double descending;
+
+    @Param("0.0")
+    double duplicates;
+
+    @Param("0")
+    int inversions;
+
+    @Param("INTEGER")
+    KeyType keyType;
+
+    @Param("13")
+    long seed;
+
+    private Object[] input;
+
+    @Setup
+    public void setup() {
+        WorkloadSpec spec = WorkloadSpec.ofLength(size)
+                                        .withRuns(runs)
+                                        .withRunLengthDistribution(distribution)
+                                        .withDescendingFraction(descending)
+                                        .withDuplicateRatio(duplicates)
+                                        .withInversions(inversions)
+                                        .withSeed(seed);
+        input = WorkloadGenerator.generate(spec, keyType);
+    }
+
+    @Benchmark
+    public Object[] heapSelectionSort() {
+        Object[] array = input.clone();
+        HeapSelectionSort.sort(array);
+        return array;
+    }
+
+    @Benchmark
+    public Object[] arraysSort() {
+        Object[] array = input.clone();
+        Arrays.sort(array);
+        return array;
+    }
+}
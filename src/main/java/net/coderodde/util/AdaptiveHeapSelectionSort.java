@@ -0,0 +1,309 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * This class implements the adaptive heap selection sort. The input range is
+ * first scanned for runs in place, without copying it or reversing anything.
+ * Then an {@link AdaptivePolicy} decides, given the number of runs and their
+ * average length, how the range is sorted. The fallback sort runs directly on
+ * the input range, and the scan stops as soon as the run count guarantees the
+ * fallback, so deciding for it costs only a part of one pass. The merges copy
+ * the range and reuse the recorded runs without comparing again.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+final class AdaptiveHeapSelectionSort {
+
+    /**
+     * The initial capacity of the run arrays.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    private AdaptiveHeapSelectionSort() {}
+
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]}, which must contain at least two components. The
+     * indices are expected to be checked by the caller.
+     *
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator.
+     * @param policy     the strategy selection policy.
+     * @return the strategy used.
+     */
+    static <T> AdaptivePolicy.Strategy sort(T[] array,
+                                            int fromIndex,
+                                            int toIndex,
+                                            Comparator<? super T> comparator,
+                                            AdaptivePolicy policy) {
+        int length = toIndex - fromIndex;
+        RunScan runScan = new RunScan();
+        runScan.scan(array,
+                     fromIndex,
+                     toIndex,
+                     comparator,
+                     getFallbackRunCount(policy, length));
+
+        AdaptivePolicy.Strategy strategy = policy.choose(runScan.runs, length);
+
+        if (strategy == AdaptivePolicy.Strategy.FALLBACK_SORT) {
+            Arrays.sort(array, fromIndex, toIndex, comparator);
+            return strategy;
+        }
+
+        T[] aux = Arrays.copyOfRange(array, fromIndex, toIndex);
+        runScan.reverseDescendingRuns(aux, fromIndex);
+
+        if (strategy == AdaptivePolicy.Strategy.RUN_HEAP_MERGE) {
+            HeapSelectionSort.RunHeap<T> runHeap =
+                    new HeapSelectionSort.RunHeap<>(aux,
+                                                    comparator,
+                                                    runScan.runs);
+
+            for (int i = 0; i < runScan.runs; ++i) {
+                runHeap.pushRun(runScan.getRunFromIndex(i) - fromIndex,
+                                runScan.runEnds[i] - fromIndex - 1);
+            }
+
+            runHeap.heapify();
+
+            for (; fromIndex < toIndex; ++fromIndex) {
+                array[fromIndex] = runHeap.popHead();
+            }
+        } else {
+            T[] sorted = mergePairwise(aux,
+                                       runScan.getBounds(fromIndex),
+                                       runScan.runs,
+                                       comparator);
+            System.arraycopy(sorted, 0, array, fromIndex, length);
+        }
+
+        return strategy;
+    }
+
+    // Returns the smallest run count for which the policy surely picks the
+    // fallback sort, or Integer.MAX_VALUE if it never does.
+    private static int getFallbackRunCount(AdaptivePolicy policy,
+                                           int length) {
+        if (policy.getMinAverageRunLength() == 0) {
+            return Integer.MAX_VALUE;
+        }
+
+        long runs = Math.max(policy.getMaxRunHeapRuns(),
+                             length / policy.getMinAverageRunLength()) + 1L;
+        return (int) Math.min(runs, Integer.MAX_VALUE);
+    }
+
+    // Merges adjacent runs level by level, alternating between aux and a
+    // buffer of the same length. bounds[i] is the starting index of the ith
+    // run and bounds[runs] is the length of aux. Returns the array holding the
+    // result.
+    private static <T> T[] mergePairwise(T[] aux,
+                                         int[] bounds,
+                                         int runs,
+                                         Comparator<? super T> comparator) {
+        T[] source = aux;
+        T[] target = HeapSelectionSort.newArray(aux, aux.length);
+
+        while (runs > 1) {
+            int mergedRuns = 0;
+            int i = 0;
+
+            for (; i + 1 < runs; i += 2) {
+                merge(source,
+                      target,
+                      bounds[i],
+                      bounds[i + 1],
+                      bounds[i + 2],
+                      comparator);
+                bounds[mergedRuns++] = bounds[i];
+            }
+
+            if (i < runs) {
+                // An odd run out.
+                System.arraycopy(source,
+                                 bounds[i],
+                                 target,
+                                 bounds[i],
+                                 bounds[i + 1] - bounds[i]);
+                bounds[mergedRuns++] = bounds[i];
+            }
+
+            bounds[mergedRuns] = aux.length;
+            runs = mergedRuns;
+
+            T[] tmp = source;
+            source = target;
+            target = tmp;
+        }
+
+        return source;
+    }
+
+    // Stably merges source[fromIndex .. middleIndex - 1] and
+    // source[middleIndex .. toIndex - 1] into the same range of target.
+    private static <T> void merge(T[] source,
+                                  T[] target,
+                                  int fromIndex,
+                                  int middleIndex,
+                                  int toIndex,
+                                  Comparator<? super T> comparator) {
+        if (comparator.compare(source[middleIndex - 1],
+                               source[middleIndex]) <= 0) {
+            // The two runs are already in order.
+            System.arraycopy(source,
+                             fromIndex,
+                             target,
+                             fromIndex,
+                             toIndex - fromIndex);
+            return;
+        }
+
+        int left = fromIndex;
+        int right = middleIndex;
+        int targetIndex = fromIndex;
+
+        while (left < middleIndex && right < toIndex) {
+            if (comparator.compare(source[right], source[left]) < 0) {
+                target[targetIndex++] = source[right++];
+            } else {
+                target[targetIndex++] = source[left++];
+            }
+        }
+
+        System.arraycopy(source,
+                         left,
+                         target,
+                         targetIndex,
+                         middleIndex - left);
+        System.arraycopy(source,
+                         right,
+                         target,
+                         targetIndex + middleIndex - left,
+                         toIndex - right);
+    }
+
+    /**
+     * This class records the runs of a range: the ascending runs and the
+     * strictly descending runs, as {@link HeapSelectionSort.RunHeapBuilder}
+     * scans them, but without reversing or appending any of them.
+     */
+    private static final class RunScan {
+
+        /**
+         * The ending exclusive indices of the runs.
+         */
+        private int[] runEnds = new int[INITIAL_CAPACITY];
+
+        /**
+         * Indicates which runs are strictly descending.
+         */
+        private boolean[] descending = new boolean[INITIAL_CAPACITY];
+
+        /**
+         * The starting index of the first run.
+         */
+        private int fromIndex;
+
+        /**
+         * The number of runs.
+         */
+        private int runs;
+
+        // Records the runs of array[fromIndex .. toIndex - 1], stopping once
+        // maximumRuns runs are recorded.
+        <T> void scan(T[] array,
+                      int fromIndex,
+                      int toIndex,
+                      Comparator<? super T> comparator,
+                      int maximumRuns) {
+            this.fromIndex = fromIndex;
+            int last = toIndex - 1;
+            int head = fromIndex;
+
+            while (head < last && runs < maximumRuns) {
+                int index = head + 1;
+                boolean isDescending =
+                        comparator.compare(array[head], array[index]) > 0;
+
+                if (isDescending) {
+                    while (index < last
+                            && comparator.compare(array[index],
+                                                  array[index + 1]) > 0) {
+                        ++index;
+                    }
+                } else {
+                    while (index < last
+                            && comparator.compare(array[index],
+                                                  array[index + 1]) <= 0) {
+                        ++index;
+                    }
+                }
+
+                addRun(index + 1, isDescending);
+                head = index + 1;
+            }
+
+            if (head == last && runs < maximumRuns) {
+                addRun(toIndex, false);
+            }
+        }
+
+        // Returns the starting index of the ith run.
+        int getRunFromIndex(int i) {
+            return i == 0 ? fromIndex : runEnds[i - 1];
+        }
+
+        // Reverses the strictly descending runs in aux, the copy of the
+        // range starting at fromIndex.
+        <T> void reverseDescendingRuns(T[] aux, int fromIndex) {
+            for (int i = 0; i < runs; ++i) {
+                if (descending[i]) {
+                    reverse(aux,
+                            getRunFromIndex(i) - fromIndex,
+                            runEnds[i] - fromIndex - 1);
+                }
+            }
+        }
+
+        // Returns the run starting indices relative to fromIndex, followed by
+        // the length of the range.
+        int[] getBounds(int fromIndex) {
+            int[] bounds = new int[runs + 1];
+
+            for (int i = 0; i < runs; ++i) {
+                bounds[i] = getRunFromIndex(i) - fromIndex;
+            }
+
+            bounds[runs] = runEnds[runs - 1] - fromIndex;
+            return bounds;
+        }
+
+        // Records a run, doubling the run arrays if they are full.
+        private void addRun(int runEnd, boolean isDescending) {
+            if (runs == runEnds.length) {
+                runEnds = Arrays.copyOf(runEnds, 2 * runs);
+                descending = Arrays.copyOf(descending, 2 * runs);
+            }
+
+            runEnds[runs] = runEnd;
+            descending[runs] = isDescending;
+            ++runs;
+        }
+
+        // Reverses the range array[fromIndex .. toIndex], both inclusive.
+        private static <T> void reverse(T[] array, int fromIndex, int toIndex) {
+            for (; fromIndex < toIndex; ++fromIndex, --toIndex) {
+                T tmp = array[fromIndex];
+                array[fromIndex] = array[toIndex];
+                array[toIndex] = tmp;
+            }
+        }
+    }
+}
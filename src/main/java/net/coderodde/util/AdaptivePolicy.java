@@ -0,0 +1,159 @@
+package net.coderodde.util;
+
+/**
+ * This class describes how the adaptive heap selection sort picks a strategy
+ * after counting the runs of the input range. Instances are immutable; each
+ * {@code with...} method returns a modified copy.
+ * <p>
+ * With {@code r} runs over {@code n} components, the decision is as follows:
+ * <ol>
+ *   <li>if {@code r <= maxRunHeapRuns}, the runs are merged by the run heap,
+ *       which makes a single pass over the data;</li>
+ *   <li>otherwise, if the average run length {@code n / r} is less than
+ *       {@code minAverageRunLength}, the input is essentially unordered and a
+ *       general-purpose stable sort is used instead;</li>
+ *   <li>otherwise, the runs are merged pairwise, level by level, which needs
+ *       about half the comparisons of a deep run heap.</li>
+ * </ol>
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public final class AdaptivePolicy {
+
+    /**
+     * The strategies the adaptive sort chooses from.
+     */
+    public enum Strategy {
+
+        /**
+         * Merge all runs at once by the run heap.
+         */
+        RUN_HEAP_MERGE,
+
+        /**
+         * Merge adjacent runs pairwise until one run remains.
+         */
+        PAIRWISE_MERGE,
+
+        /**
+         * Fall back to {@link java.util.Arrays#sort(Object[], int, int,
+         * java.util.Comparator)}.
+         */
+        FALLBACK_SORT,
+
+        /**
+         * No strategy ran, as the range has fewer than two components.
+         */
+        NONE
+    }
+
+    /**
+     * The default maximum number of runs merged by the run heap.
+     */
+    public static final int DEFAULT_MAX_RUN_HEAP_RUNS = 4;
+
+    /**
+     * The default minimum average run length below which the fallback sort is
+     * used.
+     */
+    public static final int DEFAULT_MIN_AVERAGE_RUN_LENGTH = 8;
+
+    /**
+     * The default policy.
+     */
+    public static final AdaptivePolicy DEFAULT =
+            new AdaptivePolicy(DEFAULT_MAX_RUN_HEAP_RUNS,
+                               DEFAULT_MIN_AVERAGE_RUN_LENGTH);
+
+    /**
+     * The maximum number of runs merged by the run heap.
+     */
+    private final int maxRunHeapRuns;
+
+    /**
+     * The minimum average run length for merging pairwise.
+     */
+    private final int minAverageRunLength;
+
+    private AdaptivePolicy(int maxRunHeapRuns, int minAverageRunLength) {
+        this.maxRunHeapRuns = maxRunHeapRuns;
+        this.minAverageRunLength = minAverageRunLength;
+    }
+
+    /**
+     * Returns the maximum number of runs merged by the run heap.
+     *
+     * @return the maximum number of runs merged by the run heap.
+     */
+    public int getMaxRunHeapRuns() {
+        return maxRunHeapRuns;
+    }
+
+    /**
+     * Returns the minimum average run length below which the fallback sort is
+     * used.
+     *
+     * @return the minimum average run length.
+     */
+    public int getMinAverageRunLength() {
+        return minAverageRunLength;
+    }
+
+    /**
+     * Returns a copy of this policy with the given maximum number of runs
+     * merged by the run heap.
+     *
+     * @param maxRunHeapRuns the maximum number of runs.
+     * @return the modified policy.
+     */
+    public AdaptivePolicy withMaxRunHeapRuns(int maxRunHeapRuns) {
+        if (maxRunHeapRuns < 1) {
+            throw new IllegalArgumentException(
+                    "maxRunHeapRuns(" + maxRunHeapRuns + ") < 1");
+        }
+
+        return new AdaptivePolicy(maxRunHeapRuns, minAverageRunLength);
+    }
+
+    /**
+     * Returns a copy of this policy with the given minimum average run length.
+     *
+     * @param minAverageRunLength the minimum average run length.
+     * @return the modified policy.
+     */
+    public AdaptivePolicy withMinAverageRunLength(int minAverageRunLength) {
+        if (minAverageRunLength < 0) {
+            throw new IllegalArgumentException(
+                    "minAverageRunLength(" + minAverageRunLength + ") < 0");
+        }
+
+        return new AdaptivePolicy(maxRunHeapRuns, minAverageRunLength);
+    }
+
+    /**
+     * Chooses the strategy for a range of the given length consisting of the
+     * given number of runs.
+     *
+     * @param runs   the number of runs.
+     * @param length the length of the range.
+     * @return the chosen strategy.
+     */
+    public Strategy choose(int runs, int length) {
+        if (runs <= maxRunHeapRuns) {
+            return Strategy.RUN_HEAP_MERGE;
+        }
+
+        if (length < (long) runs * minAverageRunLength) {
+            return Strategy.FALLBACK_SORT;
+        }
+
+        return Strategy.PAIRWISE_MERGE;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptivePolicy[maxRunHeapRuns=" + maxRunHeapRuns +
+               ", minAverageRunLength=" + minAverageRunLength + "]";
+    }
+}
@@ -0,0 +1,190 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * This class implements a run heap whose nodes cache the current head
+ * elements of their runs. Node {@code i} consists of the packed run
+ * descriptor {@code runs[i]}, laid out as in {@link HeapSelectionSort.RunHeap},
+ * and the head element {@code heads[i]}, which equals
+ * {@code array[fromIndex(runs[i])]}. Sifting down compares the resident heads
+ * of the nodes instead of loading the heads from scattered positions of the
+ * input array, and after a pop only the head of the root node is refreshed.
+ * Ties are resolved by the indices of the heads, which keeps the merge stable.
+ *
+ * @param <T> the array component type.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+final class CachedHeadRunHeap<T> implements RunQueue<T> {
+
+    /**
+     * The initial number of nodes.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The difference between the descriptors of a run before and after its
+     * first element is removed.
+     */
+    private static final long FROM_INDEX_INCREMENT = 1L << 32;
+
+    /**
+     * The copy of the target input range.
+     */
+    private final T[] array;
+
+    /**
+     * The array component comparator.
+     */
+    private final Comparator<? super T> comparator;
+
+    /**
+     * The packed run descriptors.
+     */
+    private long[] runs;
+
+    /**
+     * The cached head elements of the runs.
+     */
+    private T[] heads;
+
+    /**
+     * The number of runs in this heap.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty cached head heap.
+     *
+     * @param array      the copy of the input array range.
+     * @param comparator the array component comparator.
+     */
+    CachedHeadRunHeap(T[] array, Comparator<? super T> comparator) {
+        this.array = array;
+        this.comparator = comparator;
+        this.runs = new long[INITIAL_CAPACITY];
+        this.heads = HeapSelectionSort.newArray(array, INITIAL_CAPACITY);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void pushRun(int fromIndex, int toIndex) {
+        if (size == runs.length) {
+            runs = Arrays.copyOf(runs, 2 * size);
+            heads = Arrays.copyOf(heads, 2 * size);
+        }
+
+        runs[size] = ((long) fromIndex << 32) | toIndex;
+        heads[size] = array[fromIndex];
+        ++size;
+    }
+
+    @Override
+    public void appendRun(int runLength) {
+        runs[size - 1] += runLength;
+    }
+
+    @Override
+    public void heapify() {
+        for (int i = size / 2; i >= 0; --i) {
+            siftDown(i);
+        }
+    }
+
+    @Override
+    public T popHead() {
+        T ret = heads[0];
+        long run = runs[0];
+        int fromIndex = (int)(run >>> 32);
+
+        if (fromIndex == (int) run) {
+            // The head run is exhausted.
+            runs[0] = runs[--size];
+            heads[0] = heads[size];
+        } else {
+            // Load the next element of the head run.
+            runs[0] = run + FROM_INDEX_INCREMENT;
+            heads[0] = array[fromIndex + 1];
+        }
+
+        siftDown(0);
+        return ret;
+    }
+
+    @Override
+    public T peekHead() {
+        return heads[0];
+    }
+
+    /**
+     * Returns {@code true} only if the first head should precede the second
+     * one.
+     *
+     * @param head1  the first head.
+     * @param run1   the descriptor of the run of the first head.
+     * @param head2  the second head.
+     * @param run2   the descriptor of the run of the second head.
+     * @return {@code true} only if the first head takes precedence.
+     */
+    private boolean isLessThan(T head1, long run1, T head2, long run2) {
+        int cmp = comparator.compare(head1, head2);
+
+        if (cmp != 0) {
+            return cmp < 0;
+        }
+
+        // Runs never overlap, so comparing the descriptors compares the
+        // indices of the heads.
+        return run1 < run2;
+    }
+
+    /**
+     * Restores the heap invariant by moving the node at {@code index} down.
+     *
+     * @param index the starting index.
+     */
+    private void siftDown(int index) {
+        long run = runs[index];
+        T head = heads[index];
+
+        while (true) {
+            int childIndex = (index << 1) + 1;
+
+            if (childIndex >= size) {
+                break;
+            }
+
+            long childRun = runs[childIndex];
+            T childHead = heads[childIndex];
+            int rightChildIndex = childIndex + 1;
+
+            if (rightChildIndex < size
+                    && isLessThan(heads[rightChildIndex],
+                                  runs[rightChildIndex],
+                                  childHead,
+                                  childRun)) {
+                childIndex = rightChildIndex;
+                childRun = runs[childIndex];
+                childHead = heads[childIndex];
+            }
+
+            if (!isLessThan(childHead, childRun, head, run)) {
+                break;
+            }
+
+            runs[index] = childRun;
+            heads[index] = childHead;
+            index = childIndex;
+        }
+
+        runs[index] = run;
+        heads[index] = head;
+    }
+}
@@ -0,0 +1,87 @@
+package net.coderodde.util;
+
+/**
+ * This class implements heap selection sort for {@code double} arrays. The
+ * resulting order agrees with {@link java.util.Arrays#sort(double[])}:
+ * {@code -0.0} precedes {@code 0.0} and all NaN values are put at the end of
+ * the range.
+ * <p>
+ * In a single pass, the NaN values are moved to the tail of a {@code long}
+ * work array and the remaining values are mapped to {@code long} keys whose
+ * signed order equals the numerical order of the values. The keys are then
+ * sorted by the {@code long} run heap, so that run detection and merging
+ * compare raw bits only.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+final class DoubleHeapSelectionSort {
+
+    private DoubleHeapSelectionSort() {}
+
+    /**
+     * Sorts the array range {@code array[fromIndex], ..., array[toIndex - 1]}.
+     * The indices are expected to be checked by the caller.
+     *
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    static void sort(double[] array, int fromIndex, int toIndex) {
+        int rangeLength = toIndex - fromIndex;
+
+        if (rangeLength < 2) {
+            // Trivially sorted.
+            return;
+        }
+
+        long[] aux = new long[rangeLength];
+        int keys = 0;
+        int nans = 0;
+
+        for (int i = fromIndex; i < toIndex; ++i) {
+            double value = array[i];
+
+            if (value != value) {
+                // NaNs go to the tail in reverse order so that the original
+                // bit patterns survive the write-back.
+                aux[rangeLength - 1 - nans++] =
+                        Double.doubleToRawLongBits(value);
+            } else {
+                aux[keys++] = toKey(Double.doubleToRawLongBits(value));
+            }
+        }
+
+        if (keys > 1) {
+            LongHeapSelectionSort.RunHeap runHeap =
+                    new LongHeapSelectionSort.RunHeapBuilder(aux, keys)
+                            .build();
+            runHeap.heapify();
+
+            for (int i = 0; i < keys; ++i) {
+                array[fromIndex++] =
+                        Double.longBitsToDouble(toKey(runHeap.popHead()));
+            }
+        } else if (keys == 1) {
+            array[fromIndex++] = Double.longBitsToDouble(toKey(aux[0]));
+        }
+
+        for (int i = rangeLength - 1; fromIndex < toIndex; --i) {
+            array[fromIndex++] = Double.longBitsToDouble(aux[i]);
+        }
+    }
+
+    /**
+     * Converts the raw bits of a non-NaN {@code double} to a {@code long} key
+     * such that comparing keys as signed integers agrees with
+     * {@link Double#compare(double, double)}. Negative values have all but
+     * the sign bit flipped. Since the sign bit is left intact, the mapping is
+     * its own inverse.
+     *
+     * @param bits the raw bits of a value or a key.
+     * @return the key or the raw bits of the value, respectively.
+     */
+    static long toKey(long bits) {
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,75 @@
+package net.coderodde.util;
+
+/**
+ * This class implements heap selection sort for {@code float} arrays. The
+ * resulting order agrees with {@link java.util.Arrays#sort(float[])}:
+ * {@code -0.0f} precedes {@code 0.0f} and all NaN values are put at the end
+ * of the range. The values are sorted as {@code int} keys; see
+ * {@link DoubleHeapSelectionSort} for the details of the mapping.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+final class FloatHeapSelectionSort {
+
+    private FloatHeapSelectionSort() {}
+
+    /**
+     * Sorts the array range {@code array[fromIndex], ..., array[toIndex - 1]}.
+     * The indices are expected to be checked by the caller.
+     *
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    static void sort(float[] array, int fromIndex, int toIndex) {
+        int rangeLength = toIndex - fromIndex;
+
+        if (rangeLength < 2) {
+            // Trivially sorted.
+            return;
+        }
+
+        int[] aux = new int[rangeLength];
+        int keys = 0;
+        int nans = 0;
+
+        for (int i = fromIndex; i < toIndex; ++i) {
+            float value = array[i];
+
+            if (value != value) {
+                aux[rangeLength - 1 - nans++] = Float.floatToRawIntBits(value);
+            } else {
+                aux[keys++] = toKey(Float.floatToRawIntBits(value));
+            }
+        }
+
+        if (keys > 1) {
+            IntHeapSelectionSort.RunHeap runHeap =
+                    new IntHeapSelectionSort.RunHeapBuilder(aux, keys).build();
+            runHeap.heapify();
+
+            for (int i = 0; i < keys; ++i) {
+                array[fromIndex++] =
+                        Float.intBitsToFloat(toKey(runHeap.popHead()));
+            }
+        } else if (keys == 1) {
+            array[fromIndex++] = Float.intBitsToFloat(toKey(aux[0]));
+        }
+
+        for (int i = rangeLength - 1; fromIndex < toIndex; --i) {
+            array[fromIndex++] = Float.intBitsToFloat(aux[i]);
+        }
+    }
+
+    /**
+     * Converts the raw bits of a non-NaN {@code float} to an {@code int} key
+     * and back.
+     *
+     * @param bits the raw bits of a value or a key.
+     * @return the key or the raw bits of the value, respectively.
+     */
+    static int toKey(int bits) {
+        return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+    }
+}
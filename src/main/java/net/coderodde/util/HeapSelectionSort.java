@@ -1,8 +1,16 @@
 package net.coderodde.util;
 
+import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * This class implements heap selection sort.
@@ -16,7 +24,7 @@ public final class HeapSelectionSort {
      * The natural comparator delegating to possible {@code compareTo} method
      * of the input objects.
      */
-    private static final Comparator NATURAL_COMPARATOR = new Comparator() {
+    static final Comparator NATURAL_COMPARATOR = new Comparator() {
         @Override
         public int compare(Object o1, Object o2) {
             Comparable c1 = (Comparable) o1;
@@ -28,7 +36,9 @@ public final class HeapSelectionSort {
     
     /**
      * Stably sorts the array range {@code array[fromIndex], ..., 
-     * array[toIndex - 1]}.
+     * array[toIndex - 1]}. A range of at most two runs is sorted in place 
+     * without copying it; if the comparator throws meanwhile, the range holds
+     * a permutation of its elements, not necessarily in the original order.
      * 
      * @param <T>        the array component type.
      * @param array      the array holding the target range.
@@ -49,55 +59,1310 @@ public final class HeapSelectionSort {
         }
         
         if (comparator == null) {
-            comparator = (Comparator<? super T>) NATURAL_COMPARATOR;
+            comparator = naturalComparator();
+        }
+        
+        if (InPlaceRunMerge.trySort(array, 
+                                    fromIndex, 
+                                    toIndex, 
+                                    comparator, 
+                                    null)) {
+            // At most two runs, sorted without copying the range.
+            return;
+        }
+        
+        T[] aux = Arrays.copyOfRange(array, fromIndex, toIndex);
+        RunQueue<T> runQueue = new RunHeapBuilder<>(aux, comparator).build();
+        runQueue.heapify();
+        
+        // Not shared with the other merge engines, so that this call site 
+        // only ever sees the binary run heap and gets inlined.
+        for (; fromIndex < toIndex; ++fromIndex) {
+            array[fromIndex] = runQueue.popHead();
+        }
+    }
+    
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ..., 
+     * array[toIndex - 1]} using the given tuning options.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator.
+     * @param options    the tuning options.
+     */
+    public static <T> void sort(T[] array,
+                                int fromIndex,
+                                int toIndex,
+                                Comparator<? super T> comparator,
+                                SortOptions options) {
+        Objects.requireNonNull(array);
+        Objects.requireNonNull(options);
+        checkIndices(array.length, fromIndex, toIndex);
+        
+        if (toIndex - fromIndex < 2) {
+            // Trivially sorted.
+            return;
+        }
+        
+        if (comparator == null) {
+            comparator = naturalComparator();
+        }
+        
+        T[] aux = Arrays.copyOfRange(array, fromIndex, toIndex);
+        RunHeapBuilder<T> runHeapBuilder = 
+                new RunHeapBuilder<>(aux, 
+                                     comparator, 
+                                     options.getMinRunLength());
+        
+        if (options.getMergeEngine() == SortOptions.MergeEngine.RUN_HEAP
+                && options.getHeapArity() == 2
+                && (options.isGalloping() || options.isBottomUpSiftDown())) {
+            // The drain modes specific to the binary run heap.
+            RunHeap<T> runHeap = runHeapBuilder.build();
+            runHeap.heapify();
+            
+            if (options.isGalloping()) {
+                runHeap.drainGalloping(array, fromIndex, toIndex);
+                return;
+            }
+            
+            for (; fromIndex < toIndex; ++fromIndex) {
+                array[fromIndex] = runHeap.popHeadBottomUp();
+            }
+            
+            return;
+        }
+        
+        drainRunQueue(runHeapBuilder.build(createRunQueue(aux, 
+                                                          comparator, 
+                                                          options)),
+                      array,
+                      fromIndex,
+                      toIndex);
+    }
+    
+    // Creates the empty run queue of the merge engine of the options.
+    private static <T> RunQueue<T> createRunQueue(
+            T[] aux,
+            Comparator<? super T> comparator,
+            SortOptions options) {
+        switch (options.getMergeEngine()) {
+            case LOSER_TREE:
+                return new LoserTree<>(aux, comparator);
+                
+            case CACHED_HEAD_RUN_HEAP:
+                return new CachedHeadRunHeap<>(aux, comparator);
+                
+            default:
+                if (options.getHeapArity() > 2) {
+                    return new DaryRunHeap<>(aux, 
+                                             comparator, 
+                                             options.getHeapArity());
+                }
+                
+                return new RunHeap<>(aux, comparator);
+        }
+    }
+    
+    // Heapifies the filled run queue and pops all its elements to 
+    // array[fromIndex .. toIndex - 1].
+    private static <T> void drainRunQueue(RunQueue<T> runQueue,
+                                          T[] array,
+                                          int fromIndex,
+                                          int toIndex) {
+        runQueue.heapify();
+        
+        for (; fromIndex < toIndex; ++fromIndex) {
+            array[fromIndex] = runQueue.popHead();
+        }
+    }
+    
+    /**
+     * Stably sorts the entire input array using the given tuning options.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the target array.
+     * @param comparator the array component comparator.
+     * @param options    the tuning options.
+     */
+    public static <T> void sort(T[] array,
+                                Comparator<? super T> comparator,
+                                SortOptions options) {
+        Objects.requireNonNull(array);
+        sort(array, 0, array.length, comparator, options);
+    }
+    
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]} and records the comparator calls, the run structure,
+     * the sift down work and the phase timings to {@code statistics}. This
+     * method runs a separately instrumented copy of the algorithm; the other
+     * {@code sort} methods do not collect any statistics.
+     *
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator.
+     * @param statistics the statistics to reset and fill.
+     */
+    public static <T> void sort(T[] array,
+                                int fromIndex,
+                                int toIndex,
+                                Comparator<? super T> comparator,
+                                SortStatistics statistics) {
+        Objects.requireNonNull(array);
+        Objects.requireNonNull(statistics);
+        checkIndices(array.length, fromIndex, toIndex);
+        
+        if (comparator == null) {
+            comparator = naturalComparator();
+        }
+        
+        InstrumentedHeapSelectionSort.sort(array,
+                                           fromIndex,
+                                           toIndex,
+                                           comparator,
+                                           statistics);
+    }
+    
+    /**
+     * Stably sorts the entire input array and records the statistics of the
+     * sort to {@code statistics}.
+     *
+     * @param <T>        the array component type.
+     * @param array      the target array.
+     * @param comparator the array component comparator.
+     * @param statistics the statistics to reset and fill.
+     */
+    public static <T> void sort(T[] array,
+                                Comparator<? super T> comparator,
+                                SortStatistics statistics) {
+        Objects.requireNonNull(array);
+        sort(array, 0, array.length, comparator, statistics);
+    }
+    
+    /**
+     * Sorts stably the entire input array.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the target array.
+     * @param comparator the array component comparator.
+     */
+    public static <T> void sort(T[] array, Comparator<? super T> comparator) {
+        Objects.requireNonNull(array);
+        sort(array, 0, array.length, comparator);
+    }
+    
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]} using a natural order.
+     * 
+     * @param <T>       the array component type.
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    public static <T> void sort(T[] array, int fromIndex, int toIndex) {
+        sort(array, fromIndex, toIndex, naturalComparator());
+    }
+    
+    /**
+     * Stably sorts the entire array using a natural order.
+     * 
+     * @param <T>   the array component type.
+     * @param array the array to sort.
+     */
+    public static <T> void sort(T[] array) {
+        Objects.requireNonNull(array);
+        sort(array, 0, array.length);
+    }
+    
+    /**
+     * Stably sorts the array range {@code source[fromIndex], ..., 
+     * source[toIndex - 1]} into {@code target[targetIndex], ..., 
+     * target[targetIndex + toIndex - fromIndex - 1]}, leaving the source 
+     * range intact. The runs are built over a single working copy of the 
+     * source range, and the merge writes straight to the target, so the 
+     * elements are moved only twice. The target range may overlap the source
+     * range.
+     * 
+     * @param <T>         the array component type.
+     * @param source      the array holding the source range.
+     * @param fromIndex   the starting inclusive index of the source range.
+     * @param toIndex     the ending exclusive index of the source range.
+     * @param comparator  the array component comparator.
+     * @param target      the array receiving the sorted range.
+     * @param targetIndex the starting index in the target array.
+     */
+    public static <T> void sortInto(T[] source,
+                                    int fromIndex,
+                                    int toIndex,
+                                    Comparator<? super T> comparator,
+                                    T[] target,
+                                    int targetIndex) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(target);
+        checkIndices(source.length, fromIndex, toIndex);
+        int length = toIndex - fromIndex;
+        
+        checkTargetIndex(target.length, targetIndex, length);
+        
+        if (comparator == null) {
+            comparator = naturalComparator();
+        }
+        
+        T[] aux = Arrays.copyOfRange(source, fromIndex, toIndex);
+        RunHeap<T> runHeap = buildRunHeap(aux, comparator);
+        
+        if (runHeap.size() < 2) {
+            // A single run, already ascending in aux.
+            System.arraycopy(aux, 0, target, targetIndex, length);
+            return;
+        }
+        
+        runHeap.heapify();
+        
+        for (int i = 0; i < length; ++i) {
+            target[targetIndex++] = runHeap.popHead();
+        }
+    }
+    
+    /**
+     * Returns a stably sorted copy of the array range 
+     * {@code source[fromIndex], ..., source[toIndex - 1]}, leaving the source 
+     * range intact.
+     * 
+     * @param <T>        the array component type.
+     * @param source     the array holding the source range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator.
+     * @return the sorted copy of the range.
+     */
+    public static <T> T[] sortedCopy(T[] source,
+                                     int fromIndex,
+                                     int toIndex,
+                                     Comparator<? super T> comparator) {
+        Objects.requireNonNull(source);
+        checkIndices(source.length, fromIndex, toIndex);
+        T[] target = newArray(source, toIndex - fromIndex);
+        
+        sortInto(source, fromIndex, toIndex, comparator, target, 0);
+        return target;
+    }
+    
+    /**
+     * Returns a stably sorted copy of the entire input array.
+     * 
+     * @param <T>        the array component type.
+     * @param source     the array to copy.
+     * @param comparator the array component comparator.
+     * @return the sorted copy of the array.
+     */
+    public static <T> T[] sortedCopy(T[] source, 
+                                     Comparator<? super T> comparator) {
+        Objects.requireNonNull(source);
+        return sortedCopy(source, 0, source.length, comparator);
+    }
+    
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ..., 
+     * array[toIndex - 1]}, choosing the merge strategy by the measured 
+     * presortedness of the range. The runs of the range are counted first; 
+     * then {@code policy} picks among the run heap merge, a pairwise merge of 
+     * the runs and a general-purpose fallback sort, depending on the number 
+     * of runs and their average length. See {@link AdaptivePolicy} for the 
+     * decision rule.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator.
+     * @param policy     the strategy selection policy.
+     * @return the strategy that was used, or 
+     *         {@link AdaptivePolicy.Strategy#NONE} if the range has fewer than
+     *         two components.
+     */
+    public static <T> AdaptivePolicy.Strategy adaptiveSort(
+            T[] array,
+            int fromIndex,
+            int toIndex,
+            Comparator<? super T> comparator,
+            AdaptivePolicy policy) {
+        Objects.requireNonNull(array);
+        Objects.requireNonNull(policy);
+        checkIndices(array.length, fromIndex, toIndex);
+        
+        if (toIndex - fromIndex < 2) {
+            // Trivially sorted.
+            return AdaptivePolicy.Strategy.NONE;
+        }
+        
+        if (comparator == null) {
+            comparator = naturalComparator();
+        }
+        
+        return AdaptiveHeapSelectionSort.sort(array, 
+                                              fromIndex, 
+                                              toIndex, 
+                                              comparator, 
+                                              policy);
+    }
+    
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ..., 
+     * array[toIndex - 1]} using the {@link AdaptivePolicy#DEFAULT default} 
+     * adaptive policy.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator.
+     * @return the strategy that was used.
+     */
+    public static <T> AdaptivePolicy.Strategy adaptiveSort(
+            T[] array,
+            int fromIndex,
+            int toIndex,
+            Comparator<? super T> comparator) {
+        return adaptiveSort(array, 
+                            fromIndex, 
+                            toIndex, 
+                            comparator, 
+                            AdaptivePolicy.DEFAULT);
+    }
+    
+    /**
+     * Stably sorts the entire array, choosing the merge strategy by the 
+     * measured presortedness.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the target array.
+     * @param comparator the array component comparator.
+     * @param policy     the strategy selection policy.
+     * @return the strategy that was used.
+     */
+    public static <T> AdaptivePolicy.Strategy adaptiveSort(
+            T[] array,
+            Comparator<? super T> comparator,
+            AdaptivePolicy policy) {
+        Objects.requireNonNull(array);
+        return adaptiveSort(array, 0, array.length, comparator, policy);
+    }
+    
+    /**
+     * Stably sorts the entire array using the default adaptive policy.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the target array.
+     * @param comparator the array component comparator.
+     * @return the strategy that was used.
+     */
+    public static <T> AdaptivePolicy.Strategy adaptiveSort(
+            T[] array,
+            Comparator<? super T> comparator) {
+        Objects.requireNonNull(array);
+        return adaptiveSort(array, 0, array.length, comparator);
+    }
+    
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]} on the common fork/join pool. The runs are 
+     * detected and reversed in parallel; if there are too many of them, the 
+     * range is cut into equal blocks instead, which are sorted in parallel. 
+     * The output range is then split into disjoint slices of equal length by
+     * exact multi-sequence selection over the runs, and each slice is merged 
+     * by its own run heap. The result is identical to the one of 
+     * {@link #sort(Object[], int, int, Comparator)}.
+     *
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator.
+     */
+    public static <T> void parallelSort(T[] array,
+                                        int fromIndex,
+                                        int toIndex,
+                                        Comparator<? super T> comparator) {
+        Objects.requireNonNull(array);
+        checkIndices(array.length, fromIndex, toIndex);
+        
+        if (toIndex - fromIndex < 2) {
+            // Trivially sorted.
+            return;
+        }
+        
+        if (comparator == null) {
+            comparator = naturalComparator();
+        }
+        
+        ParallelHeapSelectionSort.sort(array, fromIndex, toIndex, comparator);
+    }
+    
+    /**
+     * Stably sorts the entire input array in parallel.
+     *
+     * @param <T>        the array component type.
+     * @param array      the target array.
+     * @param comparator the array component comparator.
+     */
+    public static <T> void parallelSort(T[] array,
+                                        Comparator<? super T> comparator) {
+        Objects.requireNonNull(array);
+        parallelSort(array, 0, array.length, comparator);
+    }
+    
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]} in parallel using a natural order.
+     *
+     * @param <T>       the array component type.
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    public static <T> void parallelSort(T[] array, int fromIndex, int toIndex) {
+        parallelSort(array, fromIndex, toIndex, naturalComparator());
+    }
+    
+    /**
+     * Stably sorts the entire array in parallel using a natural order.
+     *
+     * @param <T>   the array component type.
+     * @param array the array to sort.
+     */
+    public static <T> void parallelSort(T[] array) {
+        Objects.requireNonNull(array);
+        parallelSort(array, 0, array.length);
+    }
+    
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]} by an {@code int} key. Each key is extracted exactly
+     * once; all comparisons are done on the cached keys.
+     *
+     * @param <T>          the array component type.
+     * @param array        the array holding the target range.
+     * @param fromIndex    the starting inclusive index.
+     * @param toIndex      the ending exclusive index.
+     * @param keyExtractor the function extracting the sort key.
+     */
+    public static <T> void sortByInt(T[] array,
+                                     int fromIndex,
+                                     int toIndex,
+                                     ToIntFunction<? super T> keyExtractor) {
+        Objects.requireNonNull(array);
+        Objects.requireNonNull(keyExtractor);
+        checkIndices(array.length, fromIndex, toIndex);
+        KeyedHeapSelectionSort.sortByInt(array,
+                                         fromIndex,
+                                         toIndex,
+                                         keyExtractor);
+    }
+    
+    /**
+     * Stably sorts the entire array by an {@code int} key.
+     *
+     * @param <T>          the array component type.
+     * @param array        the array to sort.
+     * @param keyExtractor the function extracting the sort key.
+     */
+    public static <T> void sortByInt(T[] array,
+                                     ToIntFunction<? super T> keyExtractor) {
+        Objects.requireNonNull(array);
+        sortByInt(array, 0, array.length, keyExtractor);
+    }
+    
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]} by a {@code long} key. Each key is extracted exactly
+     * once; all comparisons are done on the cached keys.
+     *
+     * @param <T>          the array component type.
+     * @param array        the array holding the target range.
+     * @param fromIndex    the starting inclusive index.
+     * @param toIndex      the ending exclusive index.
+     * @param keyExtractor the function extracting the sort key.
+     */
+    public static <T> void sortByLong(T[] array,
+                                      int fromIndex,
+                                      int toIndex,
+                                      ToLongFunction<? super T> keyExtractor) {
+        Objects.requireNonNull(array);
+        Objects.requireNonNull(keyExtractor);
+        checkIndices(array.length, fromIndex, toIndex);
+        KeyedHeapSelectionSort.sortByLong(array,
+                                          fromIndex,
+                                          toIndex,
+                                          keyExtractor);
+    }
+    
+    /**
+     * Stably sorts the entire array by a {@code long} key.
+     *
+     * @param <T>          the array component type.
+     * @param array        the array to sort.
+     * @param keyExtractor the function extracting the sort key.
+     */
+    public static <T> void sortByLong(T[] array,
+                                      ToLongFunction<? super T> keyExtractor) {
+        Objects.requireNonNull(array);
+        sortByLong(array, 0, array.length, keyExtractor);
+    }
+    
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]} by a {@code double} key. The keys are ordered as by
+     * {@link Double#compare(double, double)}. Each key is extracted exactly
+     * once; all comparisons are done on the cached keys.
+     *
+     * @param <T>          the array component type.
+     * @param array        the array holding the target range.
+     * @param fromIndex    the starting inclusive index.
+     * @param toIndex      the ending exclusive index.
+     * @param keyExtractor the function extracting the sort key.
+     */
+    public static <T> void sortByDouble(
+            T[] array,
+            int fromIndex,
+            int toIndex,
+            ToDoubleFunction<? super T> keyExtractor) {
+        Objects.requireNonNull(array);
+        Objects.requireNonNull(keyExtractor);
+        checkIndices(array.length, fromIndex, toIndex);
+        KeyedHeapSelectionSort.sortByDouble(array,
+                                            fromIndex,
+                                            toIndex,
+                                            keyExtractor);
+    }
+    
+    /**
+     * Stably sorts the entire array by a {@code double} key.
+     *
+     * @param <T>          the array component type.
+     * @param array        the array to sort.
+     * @param keyExtractor the function extracting the sort key.
+     */
+    public static <T> void sortByDouble(
+            T[] array,
+            ToDoubleFunction<? super T> keyExtractor) {
+        Objects.requireNonNull(array);
+        sortByDouble(array, 0, array.length, keyExtractor);
+    }
+    
+    /**
+     * Sorts the array range {@code array[fromIndex], ..., array[toIndex - 1]}
+     * of {@code int} values without boxing them.
+     *
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    public static void sort(int[] array, int fromIndex, int toIndex) {
+        Objects.requireNonNull(array);
+        checkIndices(array.length, fromIndex, toIndex);
+        IntHeapSelectionSort.sort(array, fromIndex, toIndex);
+    }
+    
+    /**
+     * Sorts the entire {@code int} array.
+     *
+     * @param array the array to sort.
+     */
+    public static void sort(int[] array) {
+        Objects.requireNonNull(array);
+        sort(array, 0, array.length);
+    }
+    
+    /**
+     * Sorts the array range {@code array[fromIndex], ..., array[toIndex - 1]}
+     * of {@code long} values without boxing them.
+     *
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    public static void sort(long[] array, int fromIndex, int toIndex) {
+        Objects.requireNonNull(array);
+        checkIndices(array.length, fromIndex, toIndex);
+        LongHeapSelectionSort.sort(array, fromIndex, toIndex);
+    }
+    
+    /**
+     * Sorts the entire {@code long} array.
+     *
+     * @param array the array to sort.
+     */
+    public static void sort(long[] array) {
+        Objects.requireNonNull(array);
+        sort(array, 0, array.length);
+    }
+    
+    /**
+     * Sorts the array range {@code array[fromIndex], ..., array[toIndex - 1]}
+     * of {@code double} values. As in {@link Arrays#sort(double[])},
+     * {@code -0.0} is treated as less than {@code 0.0} and NaN values are put
+     * at the end of the range.
+     *
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    public static void sort(double[] array, int fromIndex, int toIndex) {
+        Objects.requireNonNull(array);
+        checkIndices(array.length, fromIndex, toIndex);
+        DoubleHeapSelectionSort.sort(array, fromIndex, toIndex);
+    }
+    
+    /**
+     * Sorts the entire {@code double} array.
+     *
+     * @param array the array to sort.
+     */
+    public static void sort(double[] array) {
+        Objects.requireNonNull(array);
+        sort(array, 0, array.length);
+    }
+    
+    /**
+     * Sorts the array range {@code array[fromIndex], ..., array[toIndex - 1]}
+     * of {@code float} values. As in {@link Arrays#sort(float[])},
+     * {@code -0.0f} is treated as less than {@code 0.0f} and NaN values are
+     * put at the end of the range.
+     *
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    public static void sort(float[] array, int fromIndex, int toIndex) {
+        Objects.requireNonNull(array);
+        checkIndices(array.length, fromIndex, toIndex);
+        FloatHeapSelectionSort.sort(array, fromIndex, toIndex);
+    }
+    
+    /**
+     * Sorts the entire {@code float} array.
+     *
+     * @param array the array to sort.
+     */
+    public static void sort(float[] array) {
+        Objects.requireNonNull(array);
+        sort(array, 0, array.length);
+    }
+    
+    /**
+     * Sorts the array range {@code array[fromIndex], ..., array[toIndex - 1]}
+     * of {@code byte} values. Ranges with only a few runs are merged by a run
+     * heap, all other ranges are sorted by counting sort in linear time.
+     *
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    public static void sort(byte[] array, int fromIndex, int toIndex) {
+        Objects.requireNonNull(array);
+        checkIndices(array.length, fromIndex, toIndex);
+        SmallDomainHeapSelectionSort.sort(array, fromIndex, toIndex);
+    }
+    
+    /**
+     * Sorts the entire {@code byte} array.
+     *
+     * @param array the array to sort.
+     */
+    public static void sort(byte[] array) {
+        Objects.requireNonNull(array);
+        sort(array, 0, array.length);
+    }
+    
+    /**
+     * Sorts the array range {@code array[fromIndex], ..., array[toIndex - 1]}
+     * of {@code short} values. Ranges with only a few runs are merged by a run
+     * heap, long ranges with many runs are sorted by counting sort.
+     *
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    public static void sort(short[] array, int fromIndex, int toIndex) {
+        Objects.requireNonNull(array);
+        checkIndices(array.length, fromIndex, toIndex);
+        SmallDomainHeapSelectionSort.sort(array, fromIndex, toIndex);
+    }
+    
+    /**
+     * Sorts the entire {@code short} array.
+     *
+     * @param array the array to sort.
+     */
+    public static void sort(short[] array) {
+        Objects.requireNonNull(array);
+        sort(array, 0, array.length);
+    }
+    
+    /**
+     * Sorts the array range {@code array[fromIndex], ..., array[toIndex - 1]}
+     * of {@code char} values. Ranges with only a few runs are merged by a run
+     * heap, long ranges with many runs are sorted by counting sort.
+     *
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    public static void sort(char[] array, int fromIndex, int toIndex) {
+        Objects.requireNonNull(array);
+        checkIndices(array.length, fromIndex, toIndex);
+        SmallDomainHeapSelectionSort.sort(array, fromIndex, toIndex);
+    }
+    
+    /**
+     * Sorts the entire {@code char} array.
+     *
+     * @param array the array to sort.
+     */
+    public static void sort(char[] array) {
+        Objects.requireNonNull(array);
+        sort(array, 0, array.length);
+    }
+    
+    /**
+     * Returns the indices of {@code keys} in stable sorted order of the keys,
+     * that is, a permutation {@code p} such that {@code keys[p[0]], 
+     * keys[p[1]], ...} is sorted and equal keys keep their relative order. 
+     * The runs are found and merged in a copy of the keys that carries the 
+     * original indices along, so the key array itself is left intact, and 
+     * the permutation may be applied to any number of parallel columns.
+     * 
+     * @param <T>        the key type.
+     * @param keys       the keys.
+     * @param comparator the key comparator.
+     * @return the sorting permutation.
+     */
+    public static <T> int[] argsort(T[] keys, 
+                                    Comparator<? super T> comparator) {
+        Objects.requireNonNull(keys);
+        int[] indices = KeyedHeapSelectionSort.identity(keys.length);
+        
+        if (keys.length < 2) {
+            return indices;
+        }
+        
+        if (comparator == null) {
+            comparator = naturalComparator();
+        }
+        
+        RunHeap<T> runHeap = new RunHeapBuilder<>(keys.clone(),
+                                                  comparator,
+                                                  0,
+                                                  indices).build();
+        runHeap.heapify();
+        
+        int[] permutation = new int[keys.length];
+        
+        for (int i = 0; i < permutation.length; ++i) {
+            permutation[i] = indices[runHeap.popHeadIndex()];
+        }
+        
+        return permutation;
+    }
+    
+    /**
+     * Returns the indices of {@code keys} in stable sorted order of the keys 
+     * using a natural order.
+     * 
+     * @param <T>  the key type.
+     * @param keys the keys.
+     * @return the sorting permutation.
+     */
+    public static <T> int[] argsort(T[] keys) {
+        return argsort(keys, null);
+    }
+    
+    /**
+     * Returns the indices of the {@code int} keys in stable sorted order of 
+     * the keys. The key array is left intact.
+     * 
+     * @param keys the keys.
+     * @return the sorting permutation.
+     */
+    public static int[] argsort(int[] keys) {
+        Objects.requireNonNull(keys);
+        return KeyedHeapSelectionSort.argsort(keys);
+    }
+    
+    /**
+     * Returns the indices of the {@code long} keys in stable sorted order of 
+     * the keys. The key array is left intact.
+     * 
+     * @param keys the keys.
+     * @return the sorting permutation.
+     */
+    public static int[] argsort(long[] keys) {
+        Objects.requireNonNull(keys);
+        return KeyedHeapSelectionSort.argsort(keys);
+    }
+    
+    /**
+     * Returns the indices of the {@code double} keys in stable sorted order 
+     * of the keys, ordered as by {@link Double#compare(double, double)}. The 
+     * key array is left intact.
+     * 
+     * @param keys the keys.
+     * @return the sorting permutation.
+     */
+    public static int[] argsort(double[] keys) {
+        Objects.requireNonNull(keys);
+        return KeyedHeapSelectionSort.argsort(keys);
+    }
+    
+    /**
+     * Places the {@code k} smallest components of the range 
+     * {@code array[fromIndex], ..., array[toIndex - 1]} in stable sorted order
+     * to {@code array[fromIndex], ..., array[fromIndex + k - 1]}. The rest of 
+     * the range receives the remaining components in unspecified order. The 
+     * run heap is popped only {@code k} times; the remaining runs are copied 
+     * back in bulk.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param k          the number of leading components to sort.
+     * @param comparator the array component comparator.
+     */
+    public static <T> void partialSort(T[] array,
+                                       int fromIndex,
+                                       int toIndex,
+                                       int k,
+                                       Comparator<? super T> comparator) {
+        Objects.requireNonNull(array);
+        checkIndices(array.length, fromIndex, toIndex);
+        
+        if (k < 0 || k > toIndex - fromIndex) {
+            throw new IllegalArgumentException(
+                    "k(" + k + ") is not within [0, " + 
+                    (toIndex - fromIndex) + "]");
+        }
+        
+        if (k == 0 || toIndex - fromIndex < 2) {
+            // Nothing to do.
+            return;
+        }
+        
+        if (comparator == null) {
+            comparator = naturalComparator();
+        }
+        
+        T[] aux = Arrays.copyOfRange(array, fromIndex, toIndex);
+        RunHeap<T> runHeap = new RunHeapBuilder<>(aux, comparator).build();
+        runHeap.heapify();
+        
+        for (int end = fromIndex + k; fromIndex < end; ++fromIndex) {
+            array[fromIndex] = runHeap.popHead();
+        }
+        
+        for (int i = 0; i < runHeap.size(); ++i) {
+            int runFromIndex = runHeap.getRunFromIndex(i);
+            int runLength = runHeap.getRunToIndex(i) - runFromIndex + 1;
+            System.arraycopy(aux, runFromIndex, array, fromIndex, runLength);
+            fromIndex += runLength;
+        }
+    }
+    
+    /**
+     * Places the {@code k} smallest components of the entire array in stable
+     * sorted order to its beginning.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the target array.
+     * @param k          the number of leading components to sort.
+     * @param comparator the array component comparator.
+     */
+    public static <T> void partialSort(T[] array,
+                                       int k,
+                                       Comparator<? super T> comparator) {
+        Objects.requireNonNull(array);
+        partialSort(array, 0, array.length, k, comparator);
+    }
+    
+    /**
+     * Returns an iterator over the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]} in stable sorted order. The range is copied and 
+     * split into runs right away, which takes linear time. After that, each 
+     * call to {@code next()} pops one element from the run heap, so that 
+     * consuming the first {@code k} elements out of {@code r} runs costs 
+     * {@code O(n + k log r)}. The input array is not modified.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator.
+     * @return an iterator over the sorted range.
+     */
+    public static <T> Iterator<T> sortedIterator(
+            T[] array,
+            int fromIndex,
+            int toIndex,
+            Comparator<? super T> comparator) {
+        return createSortedSpliterator(array, fromIndex, toIndex, comparator)
+                .iterator();
+    }
+    
+    /**
+     * Returns an iterator over the entire array in stable sorted order.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the array to iterate.
+     * @param comparator the array component comparator.
+     * @return an iterator over the sorted array.
+     */
+    public static <T> Iterator<T> sortedIterator(
+            T[] array,
+            Comparator<? super T> comparator) {
+        Objects.requireNonNull(array);
+        return sortedIterator(array, 0, array.length, comparator);
+    }
+    
+    /**
+     * Returns a spliterator over the array range {@code array[fromIndex], 
+     * ..., array[toIndex - 1]} in stable sorted order. The spliterator 
+     * reports {@link Spliterator#SORTED}, {@link Spliterator#ORDERED} and 
+     * {@link Spliterator#SIZED}, and pays for the elements only as they are 
+     * consumed, just like {@link #sortedIterator(Object[], int, int, 
+     * Comparator)}. The input array is not modified.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator, or {@code null} for 
+     *                   the natural order.
+     * @return a spliterator over the sorted range.
+     */
+    public static <T> Spliterator<T> sortedSpliterator(
+            T[] array,
+            int fromIndex,
+            int toIndex,
+            Comparator<? super T> comparator) {
+        return createSortedSpliterator(array, fromIndex, toIndex, comparator);
+    }
+    
+    /**
+     * Returns a spliterator over the entire array in stable sorted order.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the array to iterate.
+     * @param comparator the array component comparator, or {@code null} for 
+     *                   the natural order.
+     * @return a spliterator over the sorted array.
+     */
+    public static <T> Spliterator<T> sortedSpliterator(
+            T[] array,
+            Comparator<? super T> comparator) {
+        Objects.requireNonNull(array);
+        return sortedSpliterator(array, 0, array.length, comparator);
+    }
+    
+    /**
+     * Feeds the elements of the array range {@code array[fromIndex], ..., 
+     * array[toIndex - 1]} to {@code sink} in stable sorted order instead of 
+     * writing them back. The first element reaches the sink right after the 
+     * runs of the copy of the range are found, and each further element costs
+     * {@code O(log r)} for {@code r} runs. The input array is not modified.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator.
+     * @param sink       the consumer of the sorted elements.
+     */
+    public static <T> void sortTo(T[] array,
+                                  int fromIndex,
+                                  int toIndex,
+                                  Comparator<? super T> comparator,
+                                  Consumer<? super T> sink) {
+        Objects.requireNonNull(sink);
+        RunHeap<T> runHeap = 
+                createRunHeapOverCopy(array, fromIndex, toIndex, comparator);
+        
+        for (int i = fromIndex; i < toIndex; ++i) {
+            sink.accept(runHeap.popHead());
+        }
+    }
+    
+    /**
+     * Feeds the elements of the entire array to {@code sink} in stable sorted
+     * order. The input array is not modified.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the array to sort.
+     * @param comparator the array component comparator.
+     * @param sink       the consumer of the sorted elements.
+     */
+    public static <T> void sortTo(T[] array,
+                                  Comparator<? super T> comparator,
+                                  Consumer<? super T> sink) {
+        Objects.requireNonNull(array);
+        sortTo(array, 0, array.length, comparator, sink);
+    }
+    
+    /**
+     * Feeds the elements of the array range {@code array[fromIndex], ..., 
+     * array[toIndex - 1]} to {@code sink} in stable sorted order, 
+     * {@code batchSize} elements at a time. Every batch is passed in a fresh 
+     * array, which the sink may keep; all the batches but the last one hold 
+     * exactly {@code batchSize} elements. The input array is not modified.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator.
+     * @param batchSize  the maximum number of elements in a batch.
+     * @param sink       the consumer of the batches.
+     */
+    public static <T> void sortTo(T[] array,
+                                  int fromIndex,
+                                  int toIndex,
+                                  Comparator<? super T> comparator,
+                                  int batchSize,
+                                  Consumer<T[]> sink) {
+        Objects.requireNonNull(sink);
+        
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(
+                    "batchSize(" + batchSize + ") < 1");
+        }
+        
+        RunHeap<T> runHeap = 
+                createRunHeapOverCopy(array, fromIndex, toIndex, comparator);
+        
+        for (int remaining = toIndex - fromIndex; remaining > 0;) {
+            int length = Math.min(batchSize, remaining);
+            T[] batch = newArray(array, length);
+            
+            for (int i = 0; i < length; ++i) {
+                batch[i] = runHeap.popHead();
+            }
+            
+            remaining -= length;
+            sink.accept(batch);
+        }
+    }
+    
+    /**
+     * Feeds the elements of the entire array to {@code sink} in stable sorted
+     * order, {@code batchSize} elements at a time. The input array is not 
+     * modified.
+     * 
+     * @param <T>        the array component type.
+     * @param array      the array to sort.
+     * @param comparator the array component comparator.
+     * @param batchSize  the maximum number of elements in a batch.
+     * @param sink       the consumer of the batches.
+     */
+    public static <T> void sortTo(T[] array,
+                                  Comparator<? super T> comparator,
+                                  int batchSize,
+                                  Consumer<T[]> sink) {
+        Objects.requireNonNull(array);
+        sortTo(array, 0, array.length, comparator, batchSize, sink);
+    }
+    
+    // Copies the range and returns the heapified run heap over the copy.
+    private static <T> RunHeap<T> createRunHeapOverCopy(
+            T[] array,
+            int fromIndex,
+            int toIndex,
+            Comparator<? super T> comparator) {
+        Objects.requireNonNull(array);
+        checkIndices(array.length, fromIndex, toIndex);
+        
+        if (comparator == null) {
+            comparator = naturalComparator();
         }
         
         T[] aux = Arrays.copyOfRange(array, fromIndex, toIndex);
-        RunHeapBuilder<T> runHeapBuilder = new RunHeapBuilder<>(aux,
-                                                                comparator);
+        RunHeap<T> runHeap = buildRunHeap(aux, comparator);
+        runHeap.heapify();
+        return runHeap;
+    }
+    
+    // Copies the range, builds and heapifies the run heap and wraps it into a
+    // spliterator.
+    private static <T> SortedSpliterator<T> createSortedSpliterator(
+            T[] array,
+            int fromIndex,
+            int toIndex,
+            Comparator<? super T> comparator) {
+        RunHeap<T> runHeap = 
+                createRunHeapOverCopy(array, fromIndex, toIndex, comparator);
+        return new SortedSpliterator<>(runHeap, 
+                                       toIndex - fromIndex, 
+                                       comparator);
+    }
+    
+    /**
+     * Builds the run heap over an array of any length. Unlike 
+     * {@link RunHeapBuilder}, accepts arrays with less than two components.
+     * 
+     * @param <T>        the array component type.
+     * @param aux        the copy of the input range.
+     * @param comparator the array component comparator.
+     * @return unheapified run heap.
+     */
+    static <T> RunHeap<T> buildRunHeap(T[] aux,
+                                       Comparator<? super T> comparator) {
+        if (aux.length > 1) {
+            return new RunHeapBuilder<>(aux, comparator).build();
+        }
+        
+        RunHeap<T> runHeap = new RunHeap<>(aux, comparator);
+        
+        if (aux.length == 1) {
+            runHeap.pushRun(0, 0);
+        }
+        
+        return runHeap;
+    }
+    
+    /**
+     * This class implements a spliterator that lazily drains a run heap.
+     * 
+     * @param <T> the element type.
+     */
+    static final class SortedSpliterator<T>
+            implements Spliterator<T> {
+        
+        /**
+         * The heapified run heap.
+         */
+        private final RunHeap<T> runHeap;
+        
+        /**
+         * The comparator reported by {@link #getComparator()}.
+         */
+        private final Comparator<? super T> comparator;
+        
+        /**
+         * The number of elements not yet consumed.
+         */
+        private int remaining;
+        
+        SortedSpliterator(RunHeap<T> runHeap, 
+                          int remaining,
+                          Comparator<? super T> comparator) {
+            this.runHeap = runHeap;
+            this.remaining = remaining;
+            this.comparator = comparator;
+        }
+        
+        /**
+         * Returns an iterator consuming the elements of this spliterator.
+         * 
+         * @return an iterator.
+         */
+        Iterator<T> iterator() {
+            return new Iterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0;
+                }
+                
+                @Override
+                public T next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    
+                    --remaining;
+                    return runHeap.popHead();
+                }
+            };
+        }
         
-        RunHeap<T> runHeap = runHeapBuilder.build();
-        runHeap.heapify();
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            
+            if (remaining == 0) {
+                return false;
+            }
+            
+            --remaining;
+            action.accept(runHeap.popHead());
+            return true;
+        }
         
-        for (; fromIndex < toIndex; ++fromIndex) {
-            array[fromIndex] = runHeap.popHead();
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            
+            for (; remaining > 0; --remaining) {
+                action.accept(runHeap.popHead());
+            }
+        }
+        
+        /**
+         * Returns {@code null}, as the order of the remaining elements is only
+         * known after the preceding elements are popped.
+         * 
+         * @return {@code null}.
+         */
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+        
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+        
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SORTED | Spliterator.SIZED;
+        }
+        
+        @Override
+        public Comparator<? super T> getComparator() {
+            return comparator;
         }
     }
     
     /**
-     * Sorts stably the entire input array.
-     * 
-     * @param <T>        the array component type.
-     * @param array      the target array.
-     * @param comparator the array component comparator.
-     */
-    public static <T> void sort(T[] array, Comparator<? super T> comparator) {
-        Objects.requireNonNull(array);
-        sort(array, 0, array.length, comparator);
-    }
-    
-    /**
-     * Stably sorts the array range {@code array[fromIndex], ...,
-     * array[toIndex - 1]} using a natural order.
+     * Returns the natural comparator typed for the component type {@code T}.
      * 
-     * @param <T>       the array component type.
-     * @param array     the array holding the target range.
-     * @param fromIndex the starting inclusive index.
-     * @param toIndex   the ending exclusive index.
+     * @param <T> the array component type.
+     * @return the natural comparator.
      */
-    public static <T> void sort(T[] array, int fromIndex, int toIndex) {
-        sort(array, fromIndex, toIndex, NATURAL_COMPARATOR);
+    @SuppressWarnings("unchecked")
+    static <T> Comparator<? super T> naturalComparator() {
+        return (Comparator<? super T>) NATURAL_COMPARATOR;
     }
     
     /**
-     * Stably sorts the entire array using a natural order.
+     * Creates an array of the given length with the same component type as 
+     * {@code array}.
      * 
-     * @param <T>   the array component type.
-     * @param array the array to sort.
+     * @param <T>    the array component type.
+     * @param array  the array whose component type to use.
+     * @param length the length of the new array.
+     * @return the new array.
      */
-    public static <T> void sort(T[] array) {
-        Objects.requireNonNull(array);
-        sort(array, 0, array.length);
+    @SuppressWarnings("unchecked")
+    static <T> T[] newArray(T[] array, int length) {
+        return (T[]) Array.newInstance(array.getClass().getComponentType(), 
+                                       length);
     }
     
     /**
@@ -109,9 +1374,9 @@ public final class HeapSelectionSort {
      * @param toIndex     the index one past the last array component belonging
      *                    to the range to sort.
      */
-    private static void checkIndices(int arrayLength, 
-                                     int fromIndex,
-                                     int toIndex) {
+    static void checkIndices(int arrayLength, 
+                             int fromIndex,
+                             int toIndex) {
         if (fromIndex < 0) {
             throw new IndexOutOfBoundsException(
                     "fromIndex(" + fromIndex + ") < 0");
@@ -130,15 +1395,54 @@ public final class HeapSelectionSort {
     }
     
     /**
-     * This class implements a run heap. Each run is represented by two values:
-     * {@code fromIndexArray[i]} gives the index in {@code array} that contains
-     * the current first element of the {@code i}th run. {@code toIndexArray[i]}
-     * gives the index in {@code array} that contains the last element of the
-     * {@code i}th run.
+     * Makes sure that {@code length} components fit in the target array 
+     * starting from {@code targetIndex}.
+     * 
+     * @param targetLength the length of the target array.
+     * @param targetIndex  the starting index in the target array.
+     * @param length       the number of components to store.
+     */
+    static void checkTargetIndex(int targetLength, 
+                                 int targetIndex, 
+                                 int length) {
+        if (targetIndex < 0 || targetIndex > targetLength - length) {
+            throw new IndexOutOfBoundsException(
+                    "targetIndex(" + targetIndex + ") + length(" + length + 
+                    ") > targetLength(" + targetLength + ")");
+        }
+    }
+    
+    /**
+     * This class implements a run heap. Each run is represented by a single 
+     * packed {@code long} descriptor {@code runs[i]}: its upper 32 bits give 
+     * the index in {@code array} that contains the current first element of
+     * the {@code i}th run, and its lower 32 bits give the index in 
+     * {@code array} that contains the last element of the {@code i}th run. 
+     * Keeping both indices in one word makes a sift down move a single value
+     * per level, and the descriptor array grows only as runs are pushed, so a
+     * presorted input costs a handful of descriptors instead of 
+     * {@code array.length} integers.
      * 
      * @param <T> the array component type.
      */
-    private static final class RunHeap<T> {
+    static final class RunHeap<T> implements RunQueue<T> {
+        
+        /**
+         * The number of consecutive wins of the head run after which the 
+         * galloping drain looks for a whole block to transfer at once.
+         */
+        static final int MIN_GALLOP = 7;
+        
+        /**
+         * The initial number of run descriptors unless a capacity is given.
+         */
+        private static final int INITIAL_CAPACITY = 16;
+        
+        /**
+         * The difference between the descriptors of a run before and after 
+         * its first element is removed.
+         */
+        private static final long FROM_INDEX_INCREMENT = 1L << 32;
         
         /**
          * The number of runs in this heap.
@@ -151,14 +1455,9 @@ public final class HeapSelectionSort {
         private final T[] array;
         
         /**
-         * The array of indices for the current first elements in the runs.
-         */
-        private final int[] fromIndexArray;
-        
-        /**
-         * The array of indices for the last elements in the runs.
+         * The array of packed run descriptors.
          */
-        private final int[] toIndexArray;
+        private long[] runs;
         
         /**
          * The array component comparator.
@@ -172,29 +1471,90 @@ public final class HeapSelectionSort {
          * @param comparator the array component comparator.
          */
         RunHeap(T[] array, Comparator<? super T> comparator) {
+            this(array, comparator, INITIAL_CAPACITY);
+        }
+        
+        /**
+         * Initializes the run heap with room for {@code capacity} runs. The
+         * heap grows if more runs are pushed.
+         * 
+         * @param array      the copy of the input array range.
+         * @param comparator the array component comparator.
+         * @param capacity   the initial number of runs.
+         */
+        RunHeap(T[] array, Comparator<? super T> comparator, int capacity) {
             this.array = array;
-            this.fromIndexArray = new int[array.length / 2 + 1];
-            this.toIndexArray = new int[array.length / 2 + 1];
+            this.runs = new long[Math.max(1, capacity)];
             this.comparator = comparator;
         }
         
+        /**
+         * Returns the number of runs in this heap.
+         * 
+         * @return the number of runs.
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+        
+        /**
+         * Removes all the runs from this heap, keeping the descriptor array 
+         * for reuse.
+         */
+        void clear() {
+            size = 0;
+        }
+        
+        /**
+         * Returns the index of the current first element of the 
+         * {@code nodeIndex}th run. Before heapification, the runs are stored 
+         * in the order they were pushed.
+         * 
+         * @param nodeIndex the index of the run.
+         * @return the index of the first element.
+         */
+        int getRunFromIndex(int nodeIndex) {
+            return fromIndex(runs[nodeIndex]);
+        }
+        
+        /**
+         * Returns the index of the last element of the {@code nodeIndex}th 
+         * run.
+         * 
+         * @param nodeIndex the index of the run.
+         * @return the index of the last element.
+         */
+        int getRunToIndex(int nodeIndex) {
+            return toIndex(runs[nodeIndex]);
+        }
+        
         /**
          * Removes and returns the minimum element stored in the heap.
          * 
          * @return the minimum element.
          */
-        T popHead() {
-            T ret = array[fromIndexArray[0]];
+        @Override
+        public T popHead() {
+            return array[popHeadIndex()];
+        }
+        
+        /**
+         * Removes the minimum element stored in the heap and returns its index
+         * in the array of this heap.
+         * 
+         * @return the index of the minimum element.
+         */
+        int popHeadIndex() {
+            long run = runs[0];
+            int ret = fromIndex(run);
             
-            if (fromIndexArray[0] == toIndexArray[0]) {
+            if (ret == toIndex(run)) {
                 // The head run is exhausted.
-                int last = fromIndexArray[--size];
-                fromIndexArray[0] = last;
-                last = toIndexArray[size];
-                toIndexArray[0] = last;
+                runs[0] = runs[--size];
             } else {
                 // Increment to the next element.
-                fromIndexArray[0]++;
+                runs[0] = run + FROM_INDEX_INCREMENT;
             }
             
             // Possibly sift down the top element in order to restore the heap
@@ -204,37 +1564,199 @@ public final class HeapSelectionSort {
         }
         
         /**
-         * Appends a run to the end of this heap.
+         * Returns the minimum element stored in the heap without removing it.
+         * 
+         * @return the minimum element.
+         */
+        @Override
+        public T peekHead() {
+            return array[fromIndex(runs[0])];
+        }
+        
+        /**
+         * Removes and returns the minimum element stored in the heap, 
+         * restoring the heap invariant by bottom-up sift down.
+         * 
+         * @return the minimum element.
+         */
+        T popHeadBottomUp() {
+            long run = runs[0];
+            int fromIndex = fromIndex(run);
+            T ret = array[fromIndex];
+            
+            if (fromIndex == toIndex(run)) {
+                // The head run is exhausted.
+                runs[0] = runs[--size];
+            } else {
+                // Increment to the next element.
+                runs[0] = run + FROM_INDEX_INCREMENT;
+            }
+            
+            siftDownBottomUp();
+            return ret;
+        }
+        
+        /**
+         * Pops all the elements to {@code output[outputIndex], ..., 
+         * output[outputEnd - 1]}. Once the head run has won 
+         * {@link #MIN_GALLOP} times in a row, the number of its elements that 
+         * precede the head of the runner-up run is found by exponential and 
+         * binary search, the whole block is copied at once and the heap is 
+         * sifted down only once.
+         * 
+         * @param output      the output array.
+         * @param outputIndex the starting inclusive output index.
+         * @param outputEnd   the ending exclusive output index.
+         */
+        void drainGalloping(T[] output, int outputIndex, int outputEnd) {
+            int previousRunToIndex = -1;
+            int wins = 0;
+            
+            while (outputIndex < outputEnd) {
+                int runToIndex = toIndex(runs[0]);
+                
+                if (runToIndex == previousRunToIndex) {
+                    ++wins;
+                } else {
+                    previousRunToIndex = runToIndex;
+                    wins = 0;
+                }
+                
+                if (wins < MIN_GALLOP || size == 1) {
+                    output[outputIndex++] = popHead();
+                    continue;
+                }
+                
+                int runnerUpIndex = fromIndex(runs[1]);
+                
+                if (size > 2 && isLessThan(fromIndex(runs[2]), runnerUpIndex)) {
+                    runnerUpIndex = fromIndex(runs[2]);
+                }
+                
+                int runFromIndex = fromIndex(runs[0]);
+                int blockLength = gallop(runFromIndex, 
+                                         runToIndex, 
+                                         runnerUpIndex);
+                
+                System.arraycopy(array, 
+                                 runFromIndex, 
+                                 output, 
+                                 outputIndex, 
+                                 blockLength);
+                
+                outputIndex += blockLength;
+                
+                if (runFromIndex + blockLength > runToIndex) {
+                    // The head run is exhausted.
+                    runs[0] = runs[--size];
+                } else {
+                    runs[0] = pack(runFromIndex + blockLength, runToIndex);
+                }
+                
+                siftDown(0);
+                previousRunToIndex = -1;
+            }
+        }
+        
+        /**
+         * Returns the number of leading elements of the run 
+         * {@code array[fromIndex], ..., array[toIndex]} that precede the 
+         * element at {@code pivotIndex}. The first element of the run must 
+         * precede the pivot.
+         * 
+         * @param fromIndex  the starting inclusive index of the run.
+         * @param toIndex    the ending inclusive index of the run.
+         * @param pivotIndex the index of the pivot element.
+         * @return the length of the block preceding the pivot.
+         */
+        private int gallop(int fromIndex, int toIndex, int pivotIndex) {
+            int lastPreceding = fromIndex;
+            int offset = 1;
+            
+            // Exponential search:
+            while (fromIndex + offset <= toIndex 
+                    && isLessThan(fromIndex + offset, pivotIndex)) {
+                lastPreceding = fromIndex + offset;
+                offset <<= 1;
+            }
+            
+            // Binary search within (lastPreceding, firstNotPreceding):
+            int low = lastPreceding + 1;
+            int high = Math.min(fromIndex + offset, toIndex + 1);
+            
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                
+                if (isLessThan(middle, pivotIndex)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            
+            return low - fromIndex;
+        }
+        
+        /**
+         * Appends a run to the end of this heap, doubling the descriptor array
+         * if it is full.
          * 
          * @param fromIndex the starting inclusive index of the run.
          * @param toIndex   the ending inclusive index of the run.
          */
-        void pushRun(int fromIndex, int toIndex) {
-            int nodeIndex = size++;
-            fromIndexArray[nodeIndex] = fromIndex;
-            toIndexArray[nodeIndex] = toIndex;
+        @Override
+        public void pushRun(int fromIndex, int toIndex) {
+            if (size == runs.length) {
+                runs = Arrays.copyOf(runs, 2 * size);
+            }
+            
+            runs[size++] = pack(fromIndex, toIndex);
         }
         
         /**
          * Appends a run to the most recently added run.
          * 
-         * @param fromIndex the starting inclusive index of a run.
-         * @param toIndex   the ending inclusive index of a run.
+         * @param runLength the length of the appended run.
          */
-        void appendRun(int runLength) {
-            toIndexArray[size - 1] += runLength;
+        @Override
+        public void appendRun(int runLength) {
+            // The last index lives in the lower half of the descriptor.
+            runs[size - 1] += runLength;
         }
         
         /**
          * Heapifies the entire heap of runs. Runs in time linear to the number 
          * of runs.
          */
-        void heapify() {
+        @Override
+        public void heapify() {
             for (int i = size / 2; i >= 0; --i) {
                 siftDown(i);
             }
         }
         
+        /**
+         * Packs the indices of the first and the last element of a run into a
+         * run descriptor.
+         * 
+         * @param fromIndex the index of the first element.
+         * @param toIndex   the index of the last element.
+         * @return the run descriptor.
+         */
+        private static long pack(int fromIndex, int toIndex) {
+            return ((long) fromIndex << 32) | toIndex;
+        }
+        
+        // Returns the index of the first element of a run descriptor.
+        private static int fromIndex(long run) {
+            return (int)(run >>> 32);
+        }
+        
+        // Returns the index of the last element of a run descriptor.
+        private static int toIndex(long run) {
+            return (int) run;
+        }
+        
         /**
          * Compares two runs' head elements and returns {@code true} only if 
          * the first run should take precedence.
@@ -265,41 +1787,78 @@ public final class HeapSelectionSort {
             int leftChildIndex = (index << 1) + 1;
             int rightChildIndex = leftChildIndex + 1;
             int minIndex = index;
-            int saveFromIndex = fromIndexArray[index];
-            int saveToIndex = toIndexArray[index];
-            int targetIndex = fromIndexArray[index];
+            long saveRun = runs[index];
+            int targetIndex = fromIndex(saveRun);
 
             while (true) {
                 if (leftChildIndex < size 
-                        && isLessThan(fromIndexArray[leftChildIndex], targetIndex)) {
+                        && isLessThan(fromIndex(runs[leftChildIndex]), targetIndex)) {
                     minIndex = leftChildIndex;
                 }
 
                 if (minIndex == index) {
                     if (rightChildIndex < size
-                            && isLessThan(fromIndexArray[rightChildIndex], targetIndex)) {
+                            && isLessThan(fromIndex(runs[rightChildIndex]), targetIndex)) {
                         minIndex = rightChildIndex;
                     }
                 } else {
                     if (rightChildIndex < size
-                            && isLessThan(fromIndexArray[rightChildIndex], fromIndexArray[minIndex])) {
+                            && isLessThan(fromIndex(runs[rightChildIndex]), fromIndex(runs[minIndex]))) {
                         minIndex = rightChildIndex;
                     }
                 }
                 
                 if (minIndex == index) {
-                    fromIndexArray[minIndex] = saveFromIndex;
-                    toIndexArray[minIndex] = saveToIndex;
+                    runs[minIndex] = saveRun;
                     return;
                 }
                 
-                fromIndexArray[index] = fromIndexArray[minIndex];
-                toIndexArray[index] = toIndexArray[minIndex];
+                runs[index] = runs[minIndex];
                 index = minIndex;
                 leftChildIndex = (index << 1) + 1;
                 rightChildIndex = leftChildIndex + 1;
             }
         }
+        
+        /**
+         * Restores the run heap invariant after the root has changed. First 
+         * moves the preceding child up at every level until a leaf is reached,
+         * which takes one comparison per level, and then sifts the saved root
+         * up from that leaf to its place.
+         */
+        private void siftDownBottomUp() {
+            long saveRun = runs[0];
+            int targetIndex = fromIndex(saveRun);
+            int index = 0;
+            int childIndex = 1;
+            
+            while (childIndex < size) {
+                int rightChildIndex = childIndex + 1;
+                
+                if (rightChildIndex < size
+                        && isLessThan(fromIndex(runs[rightChildIndex]), 
+                                      fromIndex(runs[childIndex]))) {
+                    childIndex = rightChildIndex;
+                }
+                
+                runs[index] = runs[childIndex];
+                index = childIndex;
+                childIndex = (index << 1) + 1;
+            }
+            
+            while (index > 0) {
+                int parentIndex = (index - 1) >> 1;
+                
+                if (!isLessThan(targetIndex, fromIndex(runs[parentIndex]))) {
+                    break;
+                }
+                
+                runs[index] = runs[parentIndex];
+                index = parentIndex;
+            }
+            
+            runs[index] = saveRun;
+        }
     }
     
     /**
@@ -307,12 +1866,12 @@ public final class HeapSelectionSort {
      * 
      * @param <T> the array component type.
      */
-    private static final class RunHeapBuilder<T> {
+    static final class RunHeapBuilder<T> {
         
         /**
-         * The resulting run heap.
+         * The run queue being built.
          */
-        private final RunHeap<T> runHeap;
+        private RunQueue<T> runQueue;
         
         /**
          * The array component comparator.
@@ -324,6 +1883,12 @@ public final class HeapSelectionSort {
          */
         private final T[] array;
         
+        /**
+         * The optional array of payload indices that is permuted along with
+         * {@code array}. May be {@code null}.
+         */
+        private final int[] indices;
+        
         /**
          * The starting index of the current run.
          */
@@ -345,7 +1910,7 @@ public final class HeapSelectionSort {
          * The inclusive index of the very last array component of the copy of
          * the input range.
          */
-        private final int last;
+        private int last;
         
         /**
          * Indicates whether the previously scanned run was descending. If the
@@ -357,6 +1922,12 @@ public final class HeapSelectionSort {
          */
         private boolean previousRunWasDescending;
         
+        /**
+         * The minimum length of a run. Shorter natural runs are extended by 
+         * binary insertion sort. Values below 2 disable the extension.
+         */
+        private final int minRunLength;
+        
         /**
          * Constructs the run heap builder.
          * 
@@ -364,11 +1935,62 @@ public final class HeapSelectionSort {
          * @param comparator the array component comparator.
          */
         RunHeapBuilder(T[] array, Comparator<? super T> comparator) {
-            this.runHeap = new RunHeap<>(array, comparator);
+            this(array, comparator, 0);
+        }
+        
+        /**
+         * Constructs the run heap builder that extends each run shorter than 
+         * {@code minRunLength} to that length (or to the end of the array) by 
+         * stable binary insertion sort. This bounds the number of runs by 
+         * {@code array.length / minRunLength + 1}.
+         * 
+         * @param array        the copy of the target input range.
+         * @param comparator   the array component comparator.
+         * @param minRunLength the minimum run length.
+         */
+        RunHeapBuilder(T[] array, 
+                       Comparator<? super T> comparator,
+                       int minRunLength) {
+            this(array, comparator, minRunLength, null);
+        }
+        
+        /**
+         * Constructs the run heap builder that keeps {@code indices} aligned
+         * with {@code array}: whenever components of {@code array} are moved,
+         * so are the corresponding components of {@code indices}.
+         * 
+         * @param array        the copy of the target input range.
+         * @param comparator   the array component comparator.
+         * @param minRunLength the minimum run length.
+         * @param indices      the payload array or {@code null}.
+         */
+        RunHeapBuilder(T[] array, 
+                       Comparator<? super T> comparator,
+                       int minRunLength,
+                       int[] indices) {
             this.comparator = comparator;
             this.array = array;
+            this.indices = indices;
             this.right = 1;
             this.last = array.length - 1;
+            this.minRunLength = minRunLength;
+        }
+        
+        /**
+         * Prepares this builder for scanning the prefix {@code array[0], ..., 
+         * array[length - 1]}, which must contain at least two components, 
+         * into a new run queue. Allows reusing the builder over a workspace 
+         * array longer than the range being sorted.
+         * 
+         * @param length the length of the prefix to scan.
+         */
+        void reset(int length) {
+            this.runQueue = null;
+            this.head = 0;
+            this.left = 0;
+            this.right = 1;
+            this.last = length - 1;
+            this.previousRunWasDescending = false;
         }
         
         /**
@@ -377,6 +1999,25 @@ public final class HeapSelectionSort {
          * @return unheapified run heap.
          */
         RunHeap<T> build() {
+            return build(new RunHeap<>(array, comparator));
+        }
+        
+        /**
+         * Pushes the runs to the given empty run queue. This method may be 
+         * called only once per builder or per {@link #reset(int)}.
+         * 
+         * @param <Q>      the run queue type.
+         * @param runQueue the run queue to fill.
+         * @return {@code runQueue}, unheapified.
+         */
+        <Q extends RunQueue<T>> Q build(Q runQueue) {
+            this.runQueue = runQueue;
+            
+            if (minRunLength > 1) {
+                buildWithMinRunLength();
+                return runQueue;
+            }
+            
             while (left < last) {
                 head = left;
                 
@@ -393,19 +2034,108 @@ public final class HeapSelectionSort {
             }
             
             handleLastElement();
-            return runHeap;
+            return runQueue;
+        }
+        
+        // Builds the run heap with runs of at least minRunLength components.
+        // As extended runs are not necessarily terminated by a descent, every
+        // run is checked for being a continuation of the previous one.
+        private void buildWithMinRunLength() {
+            int length = last + 1;
+            
+            while (head < length) {
+                int runEnd = scanRun();
+                int forcedRunEnd = Math.min(head + minRunLength, length);
+                
+                if (runEnd < forcedRunEnd) {
+                    binaryInsertionSort(runEnd, forcedRunEnd);
+                    runEnd = forcedRunEnd;
+                }
+                
+                if (head > 0 
+                        && comparator.compare(array[head - 1], 
+                                              array[head]) <= 0) {
+                    runQueue.appendRun(runEnd - head);
+                } else {
+                    runQueue.pushRun(head, runEnd - 1);
+                }
+                
+                head = runEnd;
+            }
+        }
+        
+        // Scans the natural run starting at head, reverses it if it is 
+        // strictly descending, and returns its exclusive end index.
+        private int scanRun() {
+            left = head;
+            
+            if (left == last) {
+                return last + 1;
+            }
+            
+            right = left + 1;
+            
+            if (comparator.compare(array[left], array[right]) <= 0) {
+                while (right < last 
+                        && comparator.compare(array[right], 
+                                              array[right + 1]) <= 0) {
+                    ++right;
+                }
+            } else {
+                while (right < last 
+                        && comparator.compare(array[right], 
+                                              array[right + 1]) > 0) {
+                    ++right;
+                }
+                
+                left = right;
+                reverseRun();
+            }
+            
+            return right + 1;
+        }
+        
+        // Sorts array[head], ..., array[runEnd - 1] given that the prefix 
+        // ending before sortedEnd is already sorted. Each component is 
+        // inserted after all the components equal to it, which keeps the 
+        // sort stable.
+        private void binaryInsertionSort(int sortedEnd, int runEnd) {
+            for (int i = sortedEnd; i < runEnd; ++i) {
+                T pivot = array[i];
+                int low = head;
+                int high = i;
+                
+                while (low < high) {
+                    int middle = (low + high) >>> 1;
+                    
+                    if (comparator.compare(pivot, array[middle]) < 0) {
+                        high = middle;
+                    } else {
+                        low = middle + 1;
+                    }
+                }
+                
+                System.arraycopy(array, low, array, low + 1, i - low);
+                array[low] = pivot;
+                
+                if (indices != null) {
+                    int pivotIndex = indices[i];
+                    System.arraycopy(indices, low, indices, low + 1, i - low);
+                    indices[low] = pivotIndex;
+                }
+            }
         }
         
         // Pushes or appends a newly found run.
         private void addRun() {
             if (previousRunWasDescending) {
                 if (comparator.compare(array[head - 1], array[head]) <= 0) {
-                    runHeap.appendRun(right - head);
+                    runQueue.appendRun(right - head);
                 } else {
-                    runHeap.pushRun(head, left);
+                    runQueue.pushRun(head, left);
                 }
             } else {
-                runHeap.pushRun(head, left);
+                runQueue.pushRun(head, left);
             }
         }
         
@@ -442,6 +2172,14 @@ public final class HeapSelectionSort {
                 array[i] = array[j];
                 array[j] = tmp;
             }
+            
+            if (indices != null) {
+                for (int i = head, j = left; i < j; ++i, --j) {
+                    int tmp = indices[i];
+                    indices[i] = indices[j];
+                    indices[j] = tmp;
+                }
+            }
         }
         
         // Handles a possible leftover component at the very end of the input
@@ -450,9 +2188,9 @@ public final class HeapSelectionSort {
             if (left == last) {
                 // Once here, we have a leftover component.
                 if (comparator.compare(array[last - 1], array[last]) <= 0) {
-                    runHeap.appendRun(1);
+                    runQueue.appendRun(1);
                 } else {
-                    runHeap.pushRun(left, left);
+                    runQueue.pushRun(left, left);
                 }
             }
         }
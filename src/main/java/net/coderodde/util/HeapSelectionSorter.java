@@ -0,0 +1,181 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * This class implements a reusable heap selection sorter. Unlike
+ * {@link HeapSelectionSort#sort(Object[], int, int, Comparator)}, which
+ * allocates a copy of the range and a run heap on every call, a sorter owns a
+ * workspace array and a run heap that grow to the longest range sorted so far
+ * and are reused by the subsequent calls. Once the workspace is large enough,
+ * sorting allocates nothing. Ranges of at most two runs are sorted in place,
+ * and grow the workspace only to the length of the shorter run.
+ * <p>
+ * The workspace holds on to the elements only during a call. A sorter is not
+ * thread-safe; use one sorter per thread.
+ *
+ * @param <T> the array component type.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public final class HeapSelectionSorter<T> {
+
+    /**
+     * The array component comparator.
+     */
+    private final Comparator<? super T> comparator;
+
+    /**
+     * The workspace holding the copy of the range being sorted.
+     */
+    private T[] workspace;
+
+    /**
+     * The run heap over {@code workspace}.
+     */
+    private HeapSelectionSort.RunHeap<T> runHeap;
+
+    /**
+     * The run heap builder over {@code workspace}.
+     */
+    private HeapSelectionSort.RunHeapBuilder<T> runHeapBuilder;
+
+    /**
+     * Constructs a sorter using the given comparator.
+     *
+     * @param comparator the array component comparator, or {@code null} for
+     *                   the natural order.
+     */
+    public HeapSelectionSorter(Comparator<? super T> comparator) {
+        this.comparator = comparator != null ?
+                comparator :
+                HeapSelectionSort.naturalComparator();
+        setWorkspace(newWorkspace(0));
+    }
+
+    /**
+     * Constructs a sorter using the natural order.
+     */
+    public HeapSelectionSorter() {
+        this(null);
+    }
+
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]}.
+     *
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    public void sort(T[] array, int fromIndex, int toIndex) {
+        Objects.requireNonNull(array);
+        HeapSelectionSort.checkIndices(array.length, fromIndex, toIndex);
+        int length = toIndex - fromIndex;
+
+        if (length < 2) {
+            // Trivially sorted.
+            return;
+        }
+
+        int middleIndex = InPlaceRunMerge.scanRuns(array,
+                                                   fromIndex,
+                                                   toIndex,
+                                                   comparator);
+
+        if (middleIndex == toIndex) {
+            // At most two runs, already in order after the scan.
+            return;
+        }
+
+        // The number of workspace components that may hold elements.
+        int used = middleIndex < 0 ?
+                length :
+                InPlaceRunMerge.getBufferLength(fromIndex,
+                                                middleIndex,
+                                                toIndex);
+        ensureCapacity(used);
+
+        try {
+            if (middleIndex >= 0) {
+                // Two runs, merged without copying the range.
+                InPlaceRunMerge.merge(array,
+                                      fromIndex,
+                                      middleIndex,
+                                      toIndex,
+                                      comparator,
+                                      workspace);
+                return;
+            }
+
+            System.arraycopy(array, fromIndex, workspace, 0, length);
+            runHeap.clear();
+            runHeapBuilder.reset(length);
+            runHeapBuilder.build(runHeap);
+            runHeap.heapify();
+
+            for (int i = fromIndex; i < toIndex; ++i) {
+                array[i] = runHeap.popHead();
+            }
+        } finally {
+            // Do not keep the elements reachable after the call, even if the
+            // comparator throws.
+            Arrays.fill(workspace, 0, used, null);
+        }
+    }
+
+    /**
+     * Stably sorts the entire input array.
+     *
+     * @param array the target array.
+     */
+    public void sort(T[] array) {
+        Objects.requireNonNull(array);
+        sort(array, 0, array.length);
+    }
+
+    /**
+     * Returns the number of components the workspace can hold without
+     * growing.
+     *
+     * @return the workspace capacity.
+     */
+    public int getCapacity() {
+        return workspace.length;
+    }
+
+    // Grows the workspace to at least the given length, at least doubling it
+    // in order to amortize the growth over gradually longer ranges.
+    private void ensureCapacity(int length) {
+        if (workspace.length >= length) {
+            return;
+        }
+
+        int capacity = Math.max(length, 2 * workspace.length);
+
+        if (capacity < 0) {
+            // Overflow.
+            capacity = length;
+        }
+
+        setWorkspace(newWorkspace(capacity));
+    }
+
+    // Creates a workspace of the given capacity. The workspace never leaves
+    // this sorter, so an Object[] serves for any component type.
+    @SuppressWarnings("unchecked")
+    private static <T> T[] newWorkspace(int capacity) {
+        return (T[]) new Object[capacity];
+    }
+
+    // Installs a new workspace along with a run heap and a builder over it.
+    private void setWorkspace(T[] workspace) {
+        this.workspace = workspace;
+        this.runHeap = new HeapSelectionSort.RunHeap<>(workspace, comparator);
+        this.runHeapBuilder =
+                new HeapSelectionSort.RunHeapBuilder<>(workspace, comparator);
+    }
+}
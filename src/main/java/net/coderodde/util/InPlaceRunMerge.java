@@ -0,0 +1,272 @@
+package net.coderodde.util;
+
+import java.util.Comparator;
+
+/**
+ * This class implements the fast paths of heap selection sort for ranges that
+ * consist of at most two runs. Such ranges are handled directly in the input
+ * array: a single ascending run is left as is, a single strictly descending
+ * run is reversed, and two runs are merged with a buffer holding a copy of
+ * the shorter one. None of them needs the full copy of the range that the run
+ * heap works on.
+ * <p>
+ * If the comparator throws, the range is left holding a permutation of its
+ * elements: the strictly descending runs scanned so far are reversed, and a
+ * merge in progress returns the buffered elements to the gap it has left.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+final class InPlaceRunMerge {
+
+    private InPlaceRunMerge() {}
+
+    /**
+     * Attempts to sort the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]}, which must contain at least two components, in
+     * place. Returns {@code false} if the range has more than two runs; the
+     * strictly descending runs scanned so far are reversed by then, which
+     * does not change the stable order of the range. The indices are expected
+     * to be checked by the caller.
+     * <p>
+     * Two runs are merged through {@code buffer}. If it is {@code null} or
+     * shorter than the shorter run, a buffer of the shorter run's length is
+     * allocated instead.
+     *
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator.
+     * @param buffer     the merge buffer, or {@code null}.
+     * @return {@code true} only if the range is sorted.
+     */
+    static <T> boolean trySort(T[] array,
+                               int fromIndex,
+                               int toIndex,
+                               Comparator<? super T> comparator,
+                               T[] buffer) {
+        int middleIndex = scanRuns(array, fromIndex, toIndex, comparator);
+
+        if (middleIndex < 0) {
+            // More than two runs, leave them to the run heap.
+            return false;
+        }
+
+        if (middleIndex < toIndex) {
+            merge(array, fromIndex, middleIndex, toIndex, comparator, buffer);
+        }
+
+        return true;
+    }
+
+    /**
+     * Scans the array range {@code array[fromIndex], ..., array[toIndex - 1]},
+     * which must contain at least two components, for at most two runs,
+     * reversing the strictly descending ones. Returns {@code toIndex} if the
+     * range is sorted by then, the starting index of the second run if the two
+     * runs still need to be merged by
+     * {@link #merge(Object[], int, int, int, Comparator, Object[])}, and
+     * {@code -1} if the range has more than two runs.
+     *
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator.
+     * @return the merge point, {@code toIndex} or {@code -1}.
+     */
+    static <T> int scanRuns(T[] array,
+                            int fromIndex,
+                            int toIndex,
+                            Comparator<? super T> comparator) {
+        int middleIndex = scanRun(array, fromIndex, toIndex, comparator);
+
+        if (middleIndex == toIndex) {
+            // A single run.
+            return toIndex;
+        }
+
+        if (scanRun(array, middleIndex, toIndex, comparator) != toIndex) {
+            return -1;
+        }
+
+        if (comparator.compare(array[middleIndex - 1],
+                               array[middleIndex]) <= 0) {
+            // The two runs are already in order.
+            return toIndex;
+        }
+
+        return middleIndex;
+    }
+
+    /**
+     * Returns the length of the buffer needed to merge the runs
+     * {@code array[fromIndex], ..., array[middleIndex - 1]} and
+     * {@code array[middleIndex], ..., array[toIndex - 1]}, which is the length
+     * of the shorter one.
+     *
+     * @param fromIndex   the starting inclusive index of the left run.
+     * @param middleIndex the starting inclusive index of the right run.
+     * @param toIndex     the ending exclusive index of the right run.
+     * @return the buffer length.
+     */
+    static int getBufferLength(int fromIndex, int middleIndex, int toIndex) {
+        return Math.min(middleIndex - fromIndex, toIndex - middleIndex);
+    }
+
+    // Scans the run starting at fromIndex, reverses it if it is strictly
+    // descending and returns its ending exclusive index.
+    private static <T> int scanRun(T[] array,
+                                   int fromIndex,
+                                   int toIndex,
+                                   Comparator<? super T> comparator) {
+        int index = fromIndex + 1;
+
+        if (index == toIndex) {
+            return toIndex;
+        }
+
+        if (comparator.compare(array[fromIndex], array[index]) <= 0) {
+            while (index + 1 < toIndex
+                    && comparator.compare(array[index],
+                                          array[index + 1]) <= 0) {
+                ++index;
+            }
+        } else {
+            while (index + 1 < toIndex
+                    && comparator.compare(array[index],
+                                          array[index + 1]) > 0) {
+                ++index;
+            }
+
+            reverse(array, fromIndex, index);
+        }
+
+        return index + 1;
+    }
+
+    // Reverses the range array[fromIndex .. toIndex], both inclusive.
+    private static <T> void reverse(T[] array, int fromIndex, int toIndex) {
+        for (; fromIndex < toIndex; ++fromIndex, --toIndex) {
+            T tmp = array[fromIndex];
+            array[fromIndex] = array[toIndex];
+            array[toIndex] = tmp;
+        }
+    }
+
+    /**
+     * Stably merges the ascending runs {@code array[fromIndex], ...,
+     * array[middleIndex - 1]} and {@code array[middleIndex], ...,
+     * array[toIndex - 1]}, buffering the shorter one. If {@code buffer} is
+     * {@code null} or shorter than
+     * {@link #getBufferLength(int, int, int)}, a buffer is allocated instead.
+     * Returns the number of element moves made, counting both the copies to
+     * the buffer and the writes to the array.
+     *
+     * @param <T>         the array component type.
+     * @param array       the array holding the runs.
+     * @param fromIndex   the starting inclusive index of the left run.
+     * @param middleIndex the starting inclusive index of the right run.
+     * @param toIndex     the ending exclusive index of the right run.
+     * @param comparator  the array component comparator.
+     * @param buffer      the merge buffer, or {@code null}.
+     * @return the number of element moves.
+     */
+    static <T> int merge(T[] array,
+                         int fromIndex,
+                         int middleIndex,
+                         int toIndex,
+                         Comparator<? super T> comparator,
+                         T[] buffer) {
+        int bufferLength = getBufferLength(fromIndex, middleIndex, toIndex);
+
+        if (buffer == null || buffer.length < bufferLength) {
+            buffer = HeapSelectionSort.newArray(array, bufferLength);
+        }
+
+        if (middleIndex - fromIndex == bufferLength) {
+            return mergeForward(array,
+                                fromIndex,
+                                middleIndex,
+                                toIndex,
+                                comparator,
+                                buffer);
+        } else {
+            return mergeBackward(array,
+                                 fromIndex,
+                                 middleIndex,
+                                 toIndex,
+                                 comparator,
+                                 buffer);
+        }
+    }
+
+    // Merges from the front, buffering the left run, and returns the number
+    // of element moves.
+    private static <T> int mergeForward(T[] array,
+                                        int fromIndex,
+                                        int middleIndex,
+                                        int toIndex,
+                                        Comparator<? super T> comparator,
+                                        T[] buffer) {
+        int leftLength = middleIndex - fromIndex;
+        System.arraycopy(array, fromIndex, buffer, 0, leftLength);
+        int left = 0;
+        int right = middleIndex;
+        int targetIndex = fromIndex;
+
+        try {
+            while (left < leftLength && right < toIndex) {
+                if (comparator.compare(array[right], buffer[left]) < 0) {
+                    array[targetIndex++] = array[right++];
+                } else {
+                    array[targetIndex++] = buffer[left++];
+                }
+            }
+        } finally {
+            // The rest of the right run is already in place. Fill the gap
+            // before it with the rest of the left run, even if the comparator
+            // throws.
+            System.arraycopy(buffer,
+                             left,
+                             array,
+                             targetIndex,
+                             leftLength - left);
+        }
+
+        return 2 * leftLength + right - middleIndex;
+    }
+
+    // Merges from the back, buffering the right run, and returns the number
+    // of element moves.
+    private static <T> int mergeBackward(T[] array,
+                                         int fromIndex,
+                                         int middleIndex,
+                                         int toIndex,
+                                         Comparator<? super T> comparator,
+                                         T[] buffer) {
+        int rightLength = toIndex - middleIndex;
+        System.arraycopy(array, middleIndex, buffer, 0, rightLength);
+        int left = middleIndex - 1;
+        int right = rightLength - 1;
+        int targetIndex = toIndex - 1;
+
+        try {
+            while (left >= fromIndex && right >= 0) {
+                if (comparator.compare(buffer[right], array[left]) < 0) {
+                    array[targetIndex--] = array[left--];
+                } else {
+                    array[targetIndex--] = buffer[right--];
+                }
+            }
+        } finally {
+            // The rest of the left run is already in place. Fill the gap
+            // after it with the rest of the right run, even if the comparator
+            // throws.
+            System.arraycopy(buffer, 0, array, left + 1, right + 1);
+        }
+
+        return 2 * rightLength + middleIndex - 1 - left;
+    }
+}
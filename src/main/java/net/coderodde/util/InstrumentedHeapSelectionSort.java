@@ -0,0 +1,519 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * This class implements heap selection sort that records
+ * {@link SortStatistics}. The algorithm is the same as in
+ * {@link HeapSelectionSort}, but the run heap and its builder are separate
+ * copies that update the counters as they go, so that the uninstrumented sort
+ * does not pay for them. Ranges of at most two runs take the same in-place
+ * path as in {@link HeapSelectionSort}, scanned by a counting copy of the run
+ * scan and merged by {@link InPlaceRunMerge} through a counting comparator.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+final class InstrumentedHeapSelectionSort {
+
+    private InstrumentedHeapSelectionSort() {}
+
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]} and records the statistics of the sort. The indices
+     * are expected to be checked by the caller.
+     *
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator.
+     * @param statistics the statistics to reset and fill.
+     */
+    static <T> void sort(T[] array,
+                         int fromIndex,
+                         int toIndex,
+                         Comparator<? super T> comparator,
+                         SortStatistics statistics) {
+        statistics.reset();
+
+        if (toIndex - fromIndex < 2) {
+            // Trivially sorted.
+            statistics.runs = toIndex - fromIndex;
+            return;
+        }
+
+        long startTime = System.nanoTime();
+
+        if (tryInPlaceSort(array,
+                           fromIndex,
+                           toIndex,
+                           comparator,
+                           statistics,
+                           startTime)) {
+            return;
+        }
+
+        T[] aux = Arrays.copyOfRange(array, fromIndex, toIndex);
+        statistics.moves += aux.length;
+        RunHeap<T> runHeap = new RunHeapBuilder<>(aux,
+                                                  comparator,
+                                                  statistics).build();
+        long heapifyStartTime = System.nanoTime();
+        statistics.buildNanos = heapifyStartTime - startTime;
+        statistics.runs = runHeap.size;
+
+        runHeap.heapify();
+
+        long drainStartTime = System.nanoTime();
+        statistics.heapifyNanos = drainStartTime - heapifyStartTime;
+
+        for (; fromIndex < toIndex; ++fromIndex) {
+            array[fromIndex] = runHeap.popHead();
+        }
+
+        statistics.moves += aux.length;
+        statistics.drainNanos = System.nanoTime() - drainStartTime;
+    }
+
+    // Mirrors InPlaceRunMerge.trySort: sorts a range of at most two runs in
+    // place and returns true, or returns false with the scanned strictly
+    // descending runs reversed. The scan counts as the build phase and the
+    // merge as the drain phase.
+    private static <T> boolean tryInPlaceSort(
+            T[] array,
+            int fromIndex,
+            int toIndex,
+            Comparator<? super T> comparator,
+            SortStatistics statistics,
+            long startTime) {
+        int middleIndex =
+                scanRun(array, fromIndex, toIndex, comparator, statistics);
+
+        if (middleIndex < toIndex
+                && scanRun(array,
+                           middleIndex,
+                           toIndex,
+                           comparator,
+                           statistics) != toIndex) {
+            // More than two runs, leave them to the run heap.
+            return false;
+        }
+
+        long drainStartTime = System.nanoTime();
+        statistics.buildNanos = drainStartTime - startTime;
+
+        if (middleIndex == toIndex) {
+            statistics.runs = 1;
+            return true;
+        }
+
+        statistics.runs = 2;
+        statistics.comparisons++;
+
+        if (comparator.compare(array[middleIndex - 1],
+                               array[middleIndex]) > 0) {
+            statistics.moves +=
+                    InPlaceRunMerge.merge(array,
+                                          fromIndex,
+                                          middleIndex,
+                                          toIndex,
+                                          (element1, element2) -> {
+                                              statistics.comparisons++;
+                                              return comparator.compare(
+                                                      element1, element2);
+                                          },
+                                          null);
+        }
+
+        statistics.drainNanos = System.nanoTime() - drainStartTime;
+        return true;
+    }
+
+    // Scans the run starting at fromIndex, counting the comparator calls,
+    // reverses it if it is strictly descending and returns its ending
+    // exclusive index.
+    private static <T> int scanRun(T[] array,
+                                   int fromIndex,
+                                   int toIndex,
+                                   Comparator<? super T> comparator,
+                                   SortStatistics statistics) {
+        int index = fromIndex + 1;
+
+        if (index == toIndex) {
+            return toIndex;
+        }
+
+        statistics.comparisons++;
+
+        if (comparator.compare(array[fromIndex], array[index]) <= 0) {
+            while (index + 1 < toIndex) {
+                statistics.comparisons++;
+
+                if (comparator.compare(array[index], array[index + 1]) > 0) {
+                    break;
+                }
+
+                ++index;
+            }
+        } else {
+            while (index + 1 < toIndex) {
+                statistics.comparisons++;
+
+                if (comparator.compare(array[index], array[index + 1]) <= 0) {
+                    break;
+                }
+
+                ++index;
+            }
+
+            for (int i = fromIndex, j = index; i < j; ++i, --j) {
+                T tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+                statistics.moves += 2;
+            }
+
+            statistics.descendingRuns++;
+        }
+
+        return index + 1;
+    }
+
+    /**
+     * This class implements a run heap that counts comparator calls and sift
+     * down levels.
+     *
+     * @param <T> the array component type.
+     */
+    static final class RunHeap<T> {
+
+        /**
+         * The initial number of run descriptors.
+         */
+        private static final int INITIAL_CAPACITY = 16;
+
+        /**
+         * The difference between the descriptors of a run before and after
+         * its first element is removed.
+         */
+        private static final long FROM_INDEX_INCREMENT = 1L << 32;
+
+        /**
+         * The number of runs in this heap.
+         */
+        private int size;
+
+        /**
+         * The copy of the target input range.
+         */
+        private final T[] array;
+
+        /**
+         * The array of packed run descriptors, the index of the current first
+         * element in the upper and the index of the last element in the lower
+         * 32 bits.
+         */
+        private long[] runs;
+
+        /**
+         * The array component comparator.
+         */
+        private final Comparator<? super T> comparator;
+
+        /**
+         * The statistics being collected.
+         */
+        private final SortStatistics statistics;
+
+        /**
+         * Initializes the run heap.
+         *
+         * @param array      the copy of the input array range.
+         * @param comparator the array component comparator.
+         * @param statistics the statistics being collected.
+         */
+        RunHeap(T[] array,
+                Comparator<? super T> comparator,
+                SortStatistics statistics) {
+            this.array = array;
+            this.runs = new long[INITIAL_CAPACITY];
+            this.comparator = comparator;
+            this.statistics = statistics;
+        }
+
+        /**
+         * Removes and returns the minimum element stored in the heap.
+         *
+         * @return the minimum element.
+         */
+        T popHead() {
+            long run = runs[0];
+            int fromIndex = (int)(run >>> 32);
+            T ret = array[fromIndex];
+
+            if (fromIndex == (int) run) {
+                // The head run is exhausted.
+                runs[0] = runs[--size];
+            } else {
+                // Increment to the next element.
+                runs[0] = run + FROM_INDEX_INCREMENT;
+            }
+
+            siftDown(0);
+            return ret;
+        }
+
+        /**
+         * Appends a run to the end of this heap.
+         *
+         * @param fromIndex the starting inclusive index of the run.
+         * @param toIndex   the ending inclusive index of the run.
+         */
+        void pushRun(int fromIndex, int toIndex) {
+            if (size == runs.length) {
+                runs = Arrays.copyOf(runs, 2 * size);
+            }
+
+            runs[size++] = ((long) fromIndex << 32) | toIndex;
+        }
+
+        /**
+         * Appends a run to the most recently added run.
+         *
+         * @param runLength the length of the appended run.
+         */
+        void appendRun(int runLength) {
+            runs[size - 1] += runLength;
+            statistics.appendedRuns++;
+        }
+
+        /**
+         * Heapifies the entire heap of runs.
+         */
+        void heapify() {
+            for (int i = size / 2; i >= 0; --i) {
+                siftDown(i);
+            }
+        }
+
+        // Returns true only if the element at index1 should precede the
+        // element at index2.
+        private boolean isLessThan(int index1, int index2) {
+            statistics.comparisons++;
+            int cmp = comparator.compare(array[index1], array[index2]);
+
+            if (cmp != 0) {
+                return cmp < 0;
+            }
+
+            return index1 < index2;
+        }
+
+        // Restores the run heap invariant, counting the levels descended.
+        private void siftDown(int index) {
+            int leftChildIndex = (index << 1) + 1;
+            int rightChildIndex = leftChildIndex + 1;
+            int minIndex = index;
+            long saveRun = runs[index];
+            int targetIndex = (int)(saveRun >>> 32);
+
+            while (true) {
+                if (leftChildIndex < size
+                        && isLessThan((int)(runs[leftChildIndex] >>> 32),
+                                      targetIndex)) {
+                    minIndex = leftChildIndex;
+                }
+
+                if (minIndex == index) {
+                    if (rightChildIndex < size
+                            && isLessThan((int)(runs[rightChildIndex] >>> 32),
+                                          targetIndex)) {
+                        minIndex = rightChildIndex;
+                    }
+                } else {
+                    if (rightChildIndex < size
+                            && isLessThan((int)(runs[rightChildIndex] >>> 32),
+                                          (int)(runs[minIndex] >>> 32))) {
+                        minIndex = rightChildIndex;
+                    }
+                }
+
+                if (minIndex == index) {
+                    runs[minIndex] = saveRun;
+                    return;
+                }
+
+                statistics.siftDownLevels++;
+                runs[index] = runs[minIndex];
+                index = minIndex;
+                leftChildIndex = (index << 1) + 1;
+                rightChildIndex = leftChildIndex + 1;
+            }
+        }
+    }
+
+    /**
+     * This class implements a run heap builder that counts comparator calls
+     * and reversed runs.
+     *
+     * @param <T> the array component type.
+     */
+    static final class RunHeapBuilder<T> {
+
+        /**
+         * The resulting run heap.
+         */
+        private final RunHeap<T> runHeap;
+
+        /**
+         * The array component comparator.
+         */
+        private final Comparator<? super T> comparator;
+
+        /**
+         * The copy of the input array range.
+         */
+        private final T[] array;
+
+        /**
+         * The statistics being collected.
+         */
+        private final SortStatistics statistics;
+
+        /**
+         * The starting index of the current run.
+         */
+        private int head;
+
+        /**
+         * The current left array component of currently processed pair of
+         * consecutive array components.
+         */
+        private int left;
+
+        /**
+         * The current right array component of currently processed pair of
+         * consecutive array components.
+         */
+        private int right;
+
+        /**
+         * The inclusive index of the very last array component of the copy of
+         * the input range.
+         */
+        private final int last;
+
+        /**
+         * Indicates whether the previously scanned run was descending.
+         */
+        private boolean previousRunWasDescending;
+
+        /**
+         * Constructs the run heap builder.
+         *
+         * @param array      the copy of the target input range.
+         * @param comparator the array component comparator.
+         * @param statistics the statistics being collected.
+         */
+        RunHeapBuilder(T[] array,
+                       Comparator<? super T> comparator,
+                       SortStatistics statistics) {
+            this.runHeap = new RunHeap<>(array, comparator, statistics);
+            this.comparator = comparator;
+            this.array = array;
+            this.statistics = statistics;
+            this.right = 1;
+            this.last = array.length - 1;
+        }
+
+        /**
+         * Build the run heap.
+         *
+         * @return unheapified run heap.
+         */
+        RunHeap<T> build() {
+            while (left < last) {
+                head = left;
+
+                if (compare(array[left++], array[right++]) <= 0) {
+                    // The next run is ascending:
+                    scanAscendingRun();
+                } else {
+                    // The next run is descending:
+                    scanDescendingRun();
+                }
+
+                ++left;
+                ++right;
+            }
+
+            handleLastElement();
+            return runHeap;
+        }
+
+        // Calls the comparator and counts the call.
+        private int compare(T element1, T element2) {
+            statistics.comparisons++;
+            return comparator.compare(element1, element2);
+        }
+
+        // Pushes or appends a newly found run.
+        private void addRun() {
+            if (previousRunWasDescending
+                    && compare(array[head - 1], array[head]) <= 0) {
+                runHeap.appendRun(right - head);
+            } else {
+                runHeap.pushRun(head, left);
+            }
+        }
+
+        // Scans an ascending run.
+        private void scanAscendingRun() {
+            while (left < last && compare(array[left], array[right]) <= 0) {
+                ++left;
+                ++right;
+            }
+
+            addRun();
+            previousRunWasDescending = false;
+        }
+
+        // Scans an descending run.
+        private void scanDescendingRun() {
+            while (left != last && compare(array[left], array[right]) > 0) {
+                ++left;
+                ++right;
+            }
+
+            reverseRun();
+            addRun();
+            previousRunWasDescending = true;
+        }
+
+        // Reverses a strictly descending run.
+        private void reverseRun() {
+            for (int i = head, j = left; i < j; ++i, --j) {
+                T tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+                statistics.moves += 2;
+            }
+
+            statistics.descendingRuns++;
+        }
+
+        // Handles a possible leftover component at the very end of the input
+        // array range.
+        private void handleLastElement() {
+            if (left == last) {
+                if (compare(array[last - 1], array[last]) <= 0) {
+                    runHeap.appendRun(1);
+                } else {
+                    runHeap.pushRun(left, left);
+                }
+            }
+        }
+    }
+}
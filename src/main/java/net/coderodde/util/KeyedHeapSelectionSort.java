@@ -0,0 +1,253 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * This class implements heap selection sort of object arrays by a primitive
+ * key (decorate-sort-undecorate). The key of each element is extracted exactly
+ * once into a primitive array. Run detection and merging then operate on the
+ * cached keys while an index array tracks which element each key belongs to.
+ * Since the run heaps break ties by position and only strictly descending
+ * runs are ever reversed, the sort is stable. The same machinery returns the
+ * sorting permutation of a primitive key array without moving the keys.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+final class KeyedHeapSelectionSort {
+
+    private KeyedHeapSelectionSort() {}
+
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]} by an {@code int} key. The indices are expected to
+     * be checked by the caller.
+     *
+     * @param <T>          the array component type.
+     * @param array        the array holding the target range.
+     * @param fromIndex    the starting inclusive index.
+     * @param toIndex      the ending exclusive index.
+     * @param keyExtractor the key extractor.
+     */
+    static <T> void sortByInt(T[] array,
+                              int fromIndex,
+                              int toIndex,
+                              ToIntFunction<? super T> keyExtractor) {
+        int rangeLength = toIndex - fromIndex;
+
+        if (rangeLength < 2) {
+            // Trivially sorted.
+            return;
+        }
+
+        T[] aux = Arrays.copyOfRange(array, fromIndex, toIndex);
+        int[] keys = new int[rangeLength];
+        int[] indices = new int[rangeLength];
+
+        for (int i = 0; i < rangeLength; ++i) {
+            keys[i] = keyExtractor.applyAsInt(aux[i]);
+            indices[i] = i;
+        }
+
+        IntHeapSelectionSort.RunHeap runHeap =
+                new IntHeapSelectionSort.RunHeapBuilder(keys,
+                                                        rangeLength,
+                                                        indices).build();
+        runHeap.heapify();
+
+        for (; fromIndex < toIndex; ++fromIndex) {
+            array[fromIndex] = aux[indices[runHeap.popHeadIndex()]];
+        }
+    }
+
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]} by a {@code long} key. The indices are expected to
+     * be checked by the caller.
+     *
+     * @param <T>          the array component type.
+     * @param array        the array holding the target range.
+     * @param fromIndex    the starting inclusive index.
+     * @param toIndex      the ending exclusive index.
+     * @param keyExtractor the key extractor.
+     */
+    static <T> void sortByLong(T[] array,
+                               int fromIndex,
+                               int toIndex,
+                               ToLongFunction<? super T> keyExtractor) {
+        int rangeLength = toIndex - fromIndex;
+
+        if (rangeLength < 2) {
+            // Trivially sorted.
+            return;
+        }
+
+        T[] aux = Arrays.copyOfRange(array, fromIndex, toIndex);
+        long[] keys = new long[rangeLength];
+        int[] indices = new int[rangeLength];
+
+        for (int i = 0; i < rangeLength; ++i) {
+            keys[i] = keyExtractor.applyAsLong(aux[i]);
+            indices[i] = i;
+        }
+
+        mergeByLongKeys(array, fromIndex, toIndex, aux, keys, indices);
+    }
+
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]} by a {@code double} key. The keys are ordered as by
+     * {@link Double#compare(double, double)}. The indices are expected to be
+     * checked by the caller.
+     *
+     * @param <T>          the array component type.
+     * @param array        the array holding the target range.
+     * @param fromIndex    the starting inclusive index.
+     * @param toIndex      the ending exclusive index.
+     * @param keyExtractor the key extractor.
+     */
+    static <T> void sortByDouble(T[] array,
+                                 int fromIndex,
+                                 int toIndex,
+                                 ToDoubleFunction<? super T> keyExtractor) {
+        int rangeLength = toIndex - fromIndex;
+
+        if (rangeLength < 2) {
+            // Trivially sorted.
+            return;
+        }
+
+        T[] aux = Arrays.copyOfRange(array, fromIndex, toIndex);
+        long[] keys = new long[rangeLength];
+        int[] indices = new int[rangeLength];
+
+        for (int i = 0; i < rangeLength; ++i) {
+            // doubleToLongBits collapses all NaNs into one, which then becomes
+            // the largest key, just like in Double.compare.
+            keys[i] = DoubleHeapSelectionSort.toKey(
+                    Double.doubleToLongBits(
+                            keyExtractor.applyAsDouble(aux[i])));
+            indices[i] = i;
+        }
+
+        mergeByLongKeys(array, fromIndex, toIndex, aux, keys, indices);
+    }
+
+    /**
+     * Returns the indices of {@code keys} in stable sorted order of the keys.
+     *
+     * @param keys the keys.
+     * @return the sorting permutation.
+     */
+    static int[] argsort(int[] keys) {
+        int[] indices = identity(keys.length);
+
+        if (keys.length < 2) {
+            return indices;
+        }
+
+        IntHeapSelectionSort.RunHeap runHeap =
+                new IntHeapSelectionSort.RunHeapBuilder(keys.clone(),
+                                                        keys.length,
+                                                        indices).build();
+        runHeap.heapify();
+
+        int[] permutation = new int[keys.length];
+
+        for (int i = 0; i < permutation.length; ++i) {
+            permutation[i] = indices[runHeap.popHeadIndex()];
+        }
+
+        return permutation;
+    }
+
+    /**
+     * Returns the indices of {@code keys} in stable sorted order of the keys.
+     *
+     * @param keys the keys.
+     * @return the sorting permutation.
+     */
+    static int[] argsort(long[] keys) {
+        return argsortByLongKeys(keys.clone());
+    }
+
+    /**
+     * Returns the indices of {@code keys} in stable sorted order of the keys,
+     * ordered as by {@link Double#compare(double, double)}.
+     *
+     * @param keys the keys.
+     * @return the sorting permutation.
+     */
+    static int[] argsort(double[] keys) {
+        long[] aux = new long[keys.length];
+
+        for (int i = 0; i < aux.length; ++i) {
+            aux[i] = DoubleHeapSelectionSort.toKey(
+                    Double.doubleToLongBits(keys[i]));
+        }
+
+        return argsortByLongKeys(aux);
+    }
+
+    /**
+     * Returns the identity permutation of the given length.
+     *
+     * @param length the length of the permutation.
+     * @return the array {@code 0, 1, ..., length - 1}.
+     */
+    static int[] identity(int length) {
+        int[] indices = new int[length];
+
+        for (int i = 0; i < length; ++i) {
+            indices[i] = i;
+        }
+
+        return indices;
+    }
+
+    // Builds the long run heap over the work copy of the keys and returns the
+    // original indices of the keys in sorted order.
+    private static int[] argsortByLongKeys(long[] keys) {
+        int[] indices = identity(keys.length);
+
+        if (keys.length < 2) {
+            return indices;
+        }
+
+        LongHeapSelectionSort.RunHeap runHeap =
+                new LongHeapSelectionSort.RunHeapBuilder(keys,
+                                                         keys.length,
+                                                         indices).build();
+        runHeap.heapify();
+
+        int[] permutation = new int[keys.length];
+
+        for (int i = 0; i < permutation.length; ++i) {
+            permutation[i] = indices[runHeap.popHeadIndex()];
+        }
+
+        return permutation;
+    }
+
+    // Builds the long run heap over the cached keys and writes the elements
+    // back in the order of their keys.
+    private static <T> void mergeByLongKeys(T[] array,
+                                            int fromIndex,
+                                            int toIndex,
+                                            T[] aux,
+                                            long[] keys,
+                                            int[] indices) {
+        LongHeapSelectionSort.RunHeap runHeap =
+                new LongHeapSelectionSort.RunHeapBuilder(keys,
+                                                         keys.length,
+                                                         indices).build();
+        runHeap.heapify();
+
+        for (; fromIndex < toIndex; ++fromIndex) {
+            array[fromIndex] = aux[indices[runHeap.popHeadIndex()]];
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+
+/**
+ * This class implements heap selection sort for {@code long} arrays. The
+ * algorithm is the same as in {@link HeapSelectionSort}, yet the array
+ * components are compared directly instead of going through a comparator and
+ * boxed values.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+final class LongHeapSelectionSort {
+
+    private LongHeapSelectionSort() {}
+
+    /**
+     * Sorts the array range {@code array[fromIndex], ..., array[toIndex - 1]}.
+     * The indices are expected to be checked by the caller.
+     *
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    static void sort(long[] array, int fromIndex, int toIndex) {
+        if (toIndex - fromIndex < 2) {
+            // Trivially sorted.
+            return;
+        }
+
+        long[] aux = Arrays.copyOfRange(array, fromIndex, toIndex);
+        RunHeapBuilder runHeapBuilder = new RunHeapBuilder(aux, aux.length);
+
+        RunHeap runHeap = runHeapBuilder.build();
+        runHeap.heapify();
+
+        for (; fromIndex < toIndex; ++fromIndex) {
+            array[fromIndex] = runHeap.popHead();
+        }
+    }
+
+    /**
+     * This class implements a run heap over {@code long} values. Each run is
+     * represented by a packed {@code long} descriptor {@code runs[i]}, whose
+     * upper 32 bits give the index in {@code array} that contains the current
+     * first element of the {@code i}th run, and whose lower 32 bits give the
+     * index in {@code array} that contains the last element of the
+     * {@code i}th run. Next to each descriptor, {@code heads[i]} caches the
+     * current first element of the run, so that sifting down compares values
+     * resident in the heap instead of loading them from scattered positions
+     * of {@code array}. Both arrays grow as runs are pushed.
+     */
+    static final class RunHeap {
+
+        /**
+         * The initial number of run descriptors.
+         */
+        private static final int INITIAL_CAPACITY = 16;
+
+        /**
+         * The difference between the descriptors of a run before and after
+         * its first element is removed.
+         */
+        private static final long FROM_INDEX_INCREMENT = 1L << 32;
+
+        /**
+         * The number of runs in this heap.
+         */
+        private int size;
+
+        /**
+         * The copy of the target input range.
+         */
+        private final long[] array;
+
+        /**
+         * The array of packed run descriptors.
+         */
+        private long[] runs;
+
+        /**
+         * The array of the current first elements of the runs.
+         */
+        private long[] heads;
+
+        /**
+         * Initializes the run heap.
+         *
+         * @param array the copy of the input array range.
+         */
+        RunHeap(long[] array) {
+            this.array = array;
+            this.runs = new long[INITIAL_CAPACITY];
+            this.heads = new long[INITIAL_CAPACITY];
+        }
+
+        /**
+         * Removes and returns the minimum element stored in the heap.
+         *
+         * @return the minimum element.
+         */
+        long popHead() {
+            return array[popHeadIndex()];
+        }
+
+        /**
+         * Removes the minimum element stored in the heap and returns its index
+         * in the array of this heap.
+         *
+         * @return the index of the minimum element.
+         */
+        int popHeadIndex() {
+            long run = runs[0];
+            int ret = (int)(run >>> 32);
+
+            if (ret == (int) run) {
+                // The head run is exhausted.
+                runs[0] = runs[--size];
+                heads[0] = heads[size];
+            } else {
+                // Increment to the next element.
+                runs[0] = run + FROM_INDEX_INCREMENT;
+                heads[0] = array[ret + 1];
+            }
+
+            siftDown(0);
+            return ret;
+        }
+
+        /**
+         * Appends a run to the end of this heap.
+         *
+         * @param fromIndex the starting inclusive index of the run.
+         * @param toIndex   the ending inclusive index of the run.
+         */
+        void pushRun(int fromIndex, int toIndex) {
+            if (size == runs.length) {
+                runs = Arrays.copyOf(runs, 2 * size);
+                heads = Arrays.copyOf(heads, 2 * size);
+            }
+
+            heads[size] = array[fromIndex];
+            runs[size++] = ((long) fromIndex << 32) | toIndex;
+        }
+
+        /**
+         * Extends the most recently added run by {@code runLength} elements.
+         *
+         * @param runLength the length of the run being appended.
+         */
+        void appendRun(int runLength) {
+            runs[size - 1] += runLength;
+        }
+
+        /**
+         * Heapifies the entire heap of runs.
+         */
+        void heapify() {
+            for (int i = size / 2; i >= 0; --i) {
+                siftDown(i);
+            }
+        }
+
+        /**
+         * Returns {@code true} only if the first head should precede the
+         * second one. Ties are resolved by the run descriptors: as the runs
+         * do not overlap, this compares the indices of the heads and keeps the
+         * merge stable.
+         *
+         * @param head1 the first head.
+         * @param run1  the descriptor of the run of the first head.
+         * @param head2 the second head.
+         * @param run2  the descriptor of the run of the second head.
+         * @return {@code true} only if the first head takes precedence.
+         */
+        private static boolean isLessThan(long head1,
+                                          long run1,
+                                          long head2,
+                                          long run2) {
+            if (head1 != head2) {
+                return head1 < head2;
+            }
+
+            return run1 < run2;
+        }
+
+        /**
+         * Restores the run heap invariant.
+         *
+         * @param index the starting index.
+         */
+        private void siftDown(int index) {
+            long run = runs[index];
+            long head = heads[index];
+
+            while (true) {
+                int childIndex = (index << 1) + 1;
+
+                if (childIndex >= size) {
+                    break;
+                }
+
+                int rightChildIndex = childIndex + 1;
+
+                if (rightChildIndex < size
+                        && isLessThan(heads[rightChildIndex],
+                                      runs[rightChildIndex],
+                                      heads[childIndex],
+                                      runs[childIndex])) {
+                    childIndex = rightChildIndex;
+                }
+
+                long childRun = runs[childIndex];
+                long childHead = heads[childIndex];
+
+                if (!isLessThan(childHead, childRun, head, run)) {
+                    break;
+                }
+
+                runs[index] = childRun;
+                heads[index] = childHead;
+                index = childIndex;
+            }
+
+            runs[index] = run;
+            heads[index] = head;
+        }
+    }
+
+    /**
+     * This class implements facilities for building {@code long} run heaps.
+     */
+    static final class RunHeapBuilder {
+
+        /**
+         * The resulting run heap.
+         */
+        private final RunHeap runHeap;
+
+        /**
+         * The copy of the input array range.
+         */
+        private final long[] array;
+
+        /**
+         * The optional array of payload indices that is permuted along with
+         * {@code array}. May be {@code null}.
+         */
+        private final int[] indices;
+
+        /**
+         * The starting index of the current run.
+         */
+        private int head;
+
+        /**
+         * The current left array component of currently processed pair of
+         * consecutive array components.
+         */
+        private int left;
+
+        /**
+         * The current right array component of currently processed pair of
+         * consecutive array components.
+         */
+        private int right;
+
+        /**
+         * The inclusive index of the very last array component of the copy of
+         * the input range.
+         */
+        private final int last;
+
+        /**
+         * Indicates whether the previously scanned run was descending.
+         */
+        private boolean previousRunWasDescending;
+
+        /**
+         * Constructs the run heap builder.
+         *
+         * @param array  the copy of the target input range.
+         * @param length the number of leading components of {@code array}
+         *               to split into runs. Must be at least 2.
+         */
+        RunHeapBuilder(long[] array, int length) {
+            this(array, length, null);
+        }
+
+        /**
+         * Constructs the run heap builder that keeps {@code indices} aligned
+         * with {@code array}: whenever two components of {@code array} are
+         * swapped, so are the corresponding components of {@code indices}.
+         *
+         * @param array   the copy of the target input range.
+         * @param length  the number of leading components of {@code array}
+         *                to split into runs. Must be at least 2.
+         * @param indices the payload array or {@code null}.
+         */
+        RunHeapBuilder(long[] array, int length, int[] indices) {
+            this.runHeap = new RunHeap(array);
+            this.array = array;
+            this.indices = indices;
+            this.right = 1;
+            this.last = length - 1;
+        }
+
+        /**
+         * Build the run heap.
+         *
+         * @return unheapified run heap.
+         */
+        RunHeap build() {
+            while (left < last) {
+                head = left;
+
+                if (array[left++] <= array[right++]) {
+                    // The next run is ascending:
+                    scanAscendingRun();
+                } else {
+                    // The next run is descending:
+                    scanDescendingRun();
+                }
+
+                ++left;
+                ++right;
+            }
+
+            handleLastElement();
+            return runHeap;
+        }
+
+        // Pushes or appends a newly found run.
+        private void addRun() {
+            if (previousRunWasDescending && array[head - 1] <= array[head]) {
+                runHeap.appendRun(right - head);
+            } else {
+                runHeap.pushRun(head, left);
+            }
+        }
+
+        // Scans an ascending run.
+        private void scanAscendingRun() {
+            while (left < last && array[left] <= array[right]) {
+                ++left;
+                ++right;
+            }
+
+            addRun();
+            previousRunWasDescending = false;
+        }
+
+        // Scans an descending run.
+        private void scanDescendingRun() {
+            while (left != last && array[left] > array[right]) {
+                ++left;
+                ++right;
+            }
+
+            reverseRun();
+            addRun();
+            previousRunWasDescending = true;
+        }
+
+        // Reverses a run. This method must be called only on strictly
+        // descending runs.
+        private void reverseRun() {
+            for (int i = head, j = left; i < j; ++i, --j) {
+                long tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+
+            if (indices != null) {
+                for (int i = head, j = left; i < j; ++i, --j) {
+                    int tmp = indices[i];
+                    indices[i] = indices[j];
+                    indices[j] = tmp;
+                }
+            }
+        }
+
+        // Handles a possible leftover component at the very end of the input
+        // array range.
+        private void handleLastElement() {
+            if (left == last) {
+                if (array[last - 1] <= array[last]) {
+                    runHeap.appendRun(1);
+                } else {
+                    runHeap.pushRun(left, left);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * This class implements a tournament tree of losers over the runs found by
+ * {@link HeapSelectionSort.RunHeapBuilder}. Each internal node stores the run
+ * that lost the match played at that node, and node 0 stores the overall
+ * winner. Popping the head advances the winning run and replays only the
+ * matches on the path from its leaf to the root, which takes exactly one
+ * comparison per level. Exhausted runs lose every match without a comparator
+ * call. Ties between run heads are resolved by their indices, which keeps the
+ * merge stable. The tree is built by {@link #heapify()} once all the runs are
+ * pushed; exhausted runs keep their leaves and still count to {@link #size()}.
+ *
+ * @param <T> the array component type.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+final class LoserTree<T> implements RunQueue<T> {
+
+    /**
+     * The initial capacity of the run arrays.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The copy of the target input range.
+     */
+    private final T[] array;
+
+    /**
+     * The array component comparator.
+     */
+    private final Comparator<? super T> comparator;
+
+    /**
+     * The number of runs, which is also the number of leaves.
+     */
+    private int runs;
+
+    /**
+     * The array of indices for the current first elements in the runs.
+     */
+    private int[] fromIndexArray;
+
+    /**
+     * The array of indices for the last elements in the runs.
+     */
+    private int[] toIndexArray;
+
+    /**
+     * {@code tree[0]} is the winning run, {@code tree[i]} for {@code i > 0}
+     * is the run that lost at the internal node {@code i}. The leaf of the
+     * run {@code r} is the node {@code runs + r}.
+     */
+    private int[] tree;
+
+    /**
+     * Constructs an empty loser tree.
+     *
+     * @param array      the copy of the input array range.
+     * @param comparator the array component comparator.
+     */
+    LoserTree(T[] array, Comparator<? super T> comparator) {
+        this.array = array;
+        this.comparator = comparator;
+        this.fromIndexArray = new int[INITIAL_CAPACITY];
+        this.toIndexArray = new int[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public int size() {
+        return runs;
+    }
+
+    @Override
+    public void pushRun(int fromIndex, int toIndex) {
+        if (runs == fromIndexArray.length) {
+            fromIndexArray = Arrays.copyOf(fromIndexArray, 2 * runs);
+            toIndexArray = Arrays.copyOf(toIndexArray, 2 * runs);
+        }
+
+        fromIndexArray[runs] = fromIndex;
+        toIndexArray[runs] = toIndex;
+        ++runs;
+    }
+
+    @Override
+    public void appendRun(int runLength) {
+        toIndexArray[runs - 1] += runLength;
+    }
+
+    @Override
+    public void heapify() {
+        tree = new int[runs];
+        int[] winners = new int[runs];
+
+        for (int node = runs - 1; node > 0; --node) {
+            int leftChild = node << 1;
+            int rightChild = leftChild + 1;
+            int run1 = leftChild >= runs ? leftChild - runs
+                                         : winners[leftChild];
+            int run2 = rightChild >= runs ? rightChild - runs
+                                          : winners[rightChild];
+
+            if (isLessThan(run2, run1)) {
+                winners[node] = run2;
+                tree[node] = run1;
+            } else {
+                winners[node] = run1;
+                tree[node] = run2;
+            }
+        }
+
+        tree[0] = runs > 1 ? winners[1] : 0;
+    }
+
+    @Override
+    public T popHead() {
+        int winner = tree[0];
+        T ret = array[fromIndexArray[winner]++];
+
+        for (int node = (winner + runs) >> 1; node > 0; node >>= 1) {
+            int opponent = tree[node];
+
+            if (isLessThan(opponent, winner)) {
+                tree[node] = winner;
+                winner = opponent;
+            }
+        }
+
+        tree[0] = winner;
+        return ret;
+    }
+
+    @Override
+    public T peekHead() {
+        return array[fromIndexArray[tree[0]]];
+    }
+
+    /**
+     * Returns {@code true} only if the head of the first run should take
+     * precedence over the head of the second run.
+     *
+     * @param run1 the first run.
+     * @param run2 the second run.
+     * @return {@code true} only if the first run should take precedence.
+     */
+    private boolean isLessThan(int run1, int run2) {
+        int index1 = fromIndexArray[run1];
+        int index2 = fromIndexArray[run2];
+
+        if (index1 > toIndexArray[run1]) {
+            // Exhausted runs lose.
+            return false;
+        }
+
+        if (index2 > toIndexArray[run2]) {
+            return true;
+        }
+
+        int cmp = comparator.compare(array[index1], array[index2]);
+
+        if (cmp != 0) {
+            return cmp < 0;
+        }
+
+        return index1 < index2;
+    }
+}
@@ -0,0 +1,453 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class implements parallel heap selection sort. The runs are detected by
+ * {@link ParallelRunHeapBuilder}. If there are too many of them for the
+ * splitting below to stay cheap, the copy of the range is cut into equal
+ * blocks instead, which are sorted in parallel and become the runs. Next, the
+ * output range is split into disjoint slices of equal length. The boundary
+ * of each slice is found by exact multi-sequence selection, which cuts every
+ * run at the number of its elements among the first elements of the output,
+ * and each slice task merges the run segments between the cuts of its two
+ * boundaries by its own private run heap.
+ * <p>
+ * Elements are ordered by their value and, in case of a tie, by their index
+ * in the copy of the input range, which is exactly the order in which the
+ * sequential run heap emits them. Since every element lands at its rank in
+ * that order, the result is identical to the one of the sequential sort.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+final class ParallelHeapSelectionSort {
+
+    /**
+     * The minimum number of array components per output slice.
+     */
+    static final int MINIMUM_SLICE_LENGTH = 1 << 13;
+
+    /**
+     * The number of output slices per worker thread.
+     */
+    private static final int SLICES_PER_THREAD = 2;
+
+    /**
+     * The runs are coarsened into blocks once the slices times the runs
+     * exceed the length of the range divided by this factor. A selection
+     * binary searches every run a logarithmic number of times, so this keeps
+     * the splitting a small fraction of the merging.
+     */
+    static final int COARSENING_FACTOR = 1 << 8;
+
+    private ParallelHeapSelectionSort() {}
+
+    /**
+     * Stably sorts the array range {@code array[fromIndex], ...,
+     * array[toIndex - 1]}. The indices are expected to be checked by the
+     * caller.
+     *
+     * @param <T>        the array component type.
+     * @param array      the array holding the target range.
+     * @param fromIndex  the starting inclusive index.
+     * @param toIndex    the ending exclusive index.
+     * @param comparator the array component comparator.
+     */
+    static <T> void sort(T[] array,
+                         int fromIndex,
+                         int toIndex,
+                         Comparator<? super T> comparator) {
+        T[] aux = Arrays.copyOfRange(array, fromIndex, toIndex);
+        HeapSelectionSort.RunHeap<T> runHeap =
+                new ParallelRunHeapBuilder<>(aux, comparator).build();
+
+        int slices = Math.min(
+                ForkJoinPool.getCommonPoolParallelism() * SLICES_PER_THREAD,
+                aux.length / MINIMUM_SLICE_LENGTH);
+
+        if (slices < 2 || runHeap.size() == 1) {
+            runHeap.heapify();
+
+            for (; fromIndex < toIndex; ++fromIndex) {
+                array[fromIndex] = runHeap.popHead();
+            }
+
+            return;
+        }
+
+        int runs = runHeap.size();
+        int[] runFromIndices;
+        int[] runToIndices;
+        // No fewer blocks than slices, so that the blocks are sorted by all
+        // the threads.
+        int maximumRuns = Math.max(slices,
+                                   aux.length / (slices * COARSENING_FACTOR));
+
+        if (runs <= maximumRuns) {
+            runFromIndices = new int[runs];
+            runToIndices = new int[runs];
+
+            for (int i = 0; i < runs; ++i) {
+                runFromIndices[i] = runHeap.getRunFromIndex(i);
+                runToIndices[i] = runHeap.getRunToIndex(i) + 1;
+            }
+        } else {
+            // Too many runs; sort equal blocks and merge them instead.
+            runs = maximumRuns;
+            runFromIndices = new int[runs];
+            runToIndices = new int[runs];
+
+            for (int i = 0; i < runs; ++i) {
+                runFromIndices[i] = (int)((long) aux.length * i / runs);
+                runToIndices[i] = (int)((long) aux.length * (i + 1) / runs);
+            }
+
+            ForkJoinPool.commonPool().invoke(
+                    new BlockSortTask<>(aux,
+                                        comparator,
+                                        runFromIndices,
+                                        runToIndices,
+                                        0,
+                                        runs));
+        }
+
+        new SliceMerger<>(array,
+                          fromIndex,
+                          aux,
+                          comparator,
+                          runFromIndices,
+                          runToIndices,
+                          slices).merge();
+    }
+
+    /**
+     * This task sorts a range of blocks of the copy of the input range.
+     *
+     * @param <T> the array component type.
+     */
+    private static final class BlockSortTask<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final T[] aux;
+        private final Comparator<? super T> comparator;
+        private final int[] blockFromIndices;
+        private final int[] blockToIndices;
+        private final int from;
+        private final int to;
+
+        BlockSortTask(T[] aux,
+                      Comparator<? super T> comparator,
+                      int[] blockFromIndices,
+                      int[] blockToIndices,
+                      int from,
+                      int to) {
+            this.aux = aux;
+            this.comparator = comparator;
+            this.blockFromIndices = blockFromIndices;
+            this.blockToIndices = blockToIndices;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BlockSortTask<>(aux,
+                                              comparator,
+                                              blockFromIndices,
+                                              blockToIndices,
+                                              from,
+                                              middle),
+                          new BlockSortTask<>(aux,
+                                              comparator,
+                                              blockFromIndices,
+                                              blockToIndices,
+                                              middle,
+                                              to));
+            } else if (to - from == 1) {
+                HeapSelectionSort.sort(aux,
+                                       blockFromIndices[from],
+                                       blockToIndices[from],
+                                       comparator);
+            }
+        }
+    }
+
+    /**
+     * This class merges the runs slice by slice.
+     *
+     * @param <T> the array component type.
+     */
+    private static final class SliceMerger<T> {
+
+        /**
+         * The array receiving the sorted range.
+         */
+        private final T[] array;
+
+        /**
+         * The index at which the sorted range starts in {@code array}.
+         */
+        private final int fromIndex;
+
+        /**
+         * The copy of the input range consisting of sorted runs.
+         */
+        private final T[] aux;
+
+        /**
+         * The array component comparator.
+         */
+        private final Comparator<? super T> comparator;
+
+        /**
+         * The number of runs.
+         */
+        private final int runs;
+
+        /**
+         * The starting indices of the runs.
+         */
+        private final int[] runFromIndices;
+
+        /**
+         * The ending exclusive indices of the runs.
+         */
+        private final int[] runToIndices;
+
+        /**
+         * The number of slices.
+         */
+        private final int slices;
+
+        /**
+         * The cuts of the slice boundaries. {@code cuts[s][i]} is the index in
+         * {@code aux} at which the {@code s}th slice begins in the {@code i}th
+         * run; {@code cuts[slices]} holds the ends of the runs.
+         */
+        private final int[][] cuts;
+
+        SliceMerger(T[] array,
+                    int fromIndex,
+                    T[] aux,
+                    Comparator<? super T> comparator,
+                    int[] runFromIndices,
+                    int[] runToIndices,
+                    int slices) {
+            this.array = array;
+            this.fromIndex = fromIndex;
+            this.aux = aux;
+            this.comparator = comparator;
+            this.runs = runFromIndices.length;
+            this.runFromIndices = runFromIndices;
+            this.runToIndices = runToIndices;
+            this.slices = slices;
+            this.cuts = new int[slices + 1][];
+            this.cuts[0] = runFromIndices;
+            this.cuts[slices] = runToIndices;
+        }
+
+        // Selects the inner slice boundaries, and then merges the slices.
+        void merge() {
+            ForkJoinPool.commonPool().invoke(new SliceTask(1, slices, true));
+            ForkJoinPool.commonPool().invoke(new SliceTask(0, slices, false));
+        }
+
+        // Returns the rank in the output at which the slice begins.
+        private int getSliceRank(int slice) {
+            return (int)((long) aux.length * slice / slices);
+        }
+
+        // Returns true only if the element at index1 precedes the element at
+        // index2 in the output.
+        private boolean precedes(int index1, int index2) {
+            int cmp = comparator.compare(aux[index1], aux[index2]);
+            return cmp < 0 || (cmp == 0 && index1 < index2);
+        }
+
+        // Returns the index of the first element in aux[low .. high - 1] not
+        // preceding the pivot, or high if there is none.
+        private int cut(int low, int high, int pivot) {
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+
+                if (precedes(middle, pivot)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            return low;
+        }
+
+        // Finds the cuts of every run such that exactly rank elements precede
+        // them in the output. Every run i keeps a window
+        // aux[lows[i] .. highs[i] - 1] of the candidates; the elements before
+        // the windows precede all the candidates, and the elements after them
+        // follow all the candidates. Each round cuts the windows at the
+        // weighted median of their middle elements, which discards at least a
+        // quarter of the candidates, until the windows are empty.
+        private int[] select(int rank) {
+            int[] lows = runFromIndices.clone();
+            int[] highs = runToIndices.clone();
+            int[] pivotCuts = new int[runs];
+            Integer[] candidateRuns = new Integer[runs];
+            int candidates = aux.length;
+            int preceding = 0;
+
+            while (candidates > 0) {
+                int candidateRunCount = 0;
+
+                for (int i = 0; i < runs; ++i) {
+                    if (lows[i] < highs[i]) {
+                        candidateRuns[candidateRunCount++] = i;
+                    }
+                }
+
+                Arrays.sort(candidateRuns,
+                            0,
+                            candidateRunCount,
+                            (run1, run2) -> compareMiddles(lows,
+                                                           highs,
+                                                           run1,
+                                                           run2));
+
+                int pivotRun = 0;
+                int weight = 0;
+
+                for (int j = 0; j < candidateRunCount; ++j) {
+                    pivotRun = candidateRuns[j];
+                    weight += highs[pivotRun] - lows[pivotRun];
+
+                    if (2L * weight >= candidates) {
+                        break;
+                    }
+                }
+
+                int pivot = getMiddle(lows, highs, pivotRun);
+
+                // The number of elements preceding the pivot.
+                int pivotRank = preceding;
+
+                for (int i = 0; i < runs; ++i) {
+                    pivotCuts[i] = cut(lows[i], highs[i], pivot);
+                    pivotRank += pivotCuts[i] - lows[i];
+                }
+
+                if (pivotRank == rank) {
+                    // Exactly the elements preceding the pivot are among the
+                    // first rank elements.
+                    return pivotCuts;
+                }
+
+                if (pivotRank < rank) {
+                    // The pivot and all the elements preceding it are among
+                    // the first rank elements.
+                    pivotCuts[pivotRun] = pivot + 1;
+
+                    for (int i = 0; i < runs; ++i) {
+                        candidates -= pivotCuts[i] - lows[i];
+                        preceding += pivotCuts[i] - lows[i];
+                        lows[i] = pivotCuts[i];
+                    }
+                } else {
+                    // The pivot and all the elements following it are not
+                    // among them.
+                    for (int i = 0; i < runs; ++i) {
+                        candidates -= highs[i] - pivotCuts[i];
+                        highs[i] = pivotCuts[i];
+                    }
+                }
+            }
+
+            return lows;
+        }
+
+        // Compares the middle candidates of two runs in the output order.
+        private int compareMiddles(int[] lows,
+                                   int[] highs,
+                                   int run1,
+                                   int run2) {
+            if (run1 == run2) {
+                return 0;
+            }
+
+            return precedes(getMiddle(lows, highs, run1),
+                            getMiddle(lows, highs, run2)) ? -1 : 1;
+        }
+
+        // Returns the index of the middle candidate of the run.
+        private static int getMiddle(int[] lows, int[] highs, int run) {
+            return (lows[run] + highs[run]) >>> 1;
+        }
+
+        // Merges the run segments between the cuts of the slice boundaries.
+        // The heap of the segments grows as they are pushed, so a slice task
+        // holds memory proportional to its own segments only.
+        private void mergeSlice(int slice) {
+            HeapSelectionSort.RunHeap<T> runHeap =
+                    new HeapSelectionSort.RunHeap<>(aux, comparator);
+            int[] lowCuts = cuts[slice];
+            int[] highCuts = cuts[slice + 1];
+
+            for (int i = 0; i < runs; ++i) {
+                if (lowCuts[i] < highCuts[i]) {
+                    runHeap.pushRun(lowCuts[i], highCuts[i] - 1);
+                }
+            }
+
+            if (runHeap.size() == 0) {
+                return;
+            }
+
+            runHeap.heapify();
+            int outputIndex = fromIndex + getSliceRank(slice);
+            int end = fromIndex + getSliceRank(slice + 1);
+
+            while (outputIndex < end) {
+                array[outputIndex++] = runHeap.popHead();
+            }
+        }
+
+        /**
+         * This task either selects the boundaries of or merges a range of
+         * slices.
+         */
+        private final class SliceTask extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+            private final boolean select;
+
+            SliceTask(int from, int to, boolean select) {
+                this.from = from;
+                this.to = to;
+                this.select = select;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from > 1) {
+                    int middle = (from + to) >>> 1;
+                    invokeAll(new SliceTask(from, middle, select),
+                              new SliceTask(middle, to, select));
+                } else if (to - from == 1) {
+                    if (select) {
+                        cuts[from] = select(getSliceRank(from));
+                    } else {
+                        mergeSlice(from);
+                    }
+                }
+            }
+        }
+    }
+}
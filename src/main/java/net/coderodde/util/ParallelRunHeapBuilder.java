@@ -0,0 +1,466 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class implements a run heap builder that detects the runs on the
+ * common {@link ForkJoinPool}. The resulting run heap is identical to the one
+ * produced by {@link HeapSelectionSort.RunHeapBuilder}. The build proceeds in
+ * four phases:
+ * <ol>
+ *   <li>The input is split into chunks, and each chunk is scanned for
+ *       ascending and strictly descending runs in parallel without crossing
+ *       the chunk boundaries. Nothing is modified.</li>
+ *   <li>The chunk-local runs are stitched sequentially into the global run
+ *       structure. A run that starts where the sequential scan would start a
+ *       run is taken as is, unless it touches the end of its chunk, in which
+ *       case it is extended across the boundary. Since a run of the same kind
+ *       can jump over any chunk-local run it enters, stitching does not need
+ *       any comparisons apart from those at the chunk boundaries.</li>
+ *   <li>For each run it is decided in parallel whether it would be appended to
+ *       the preceding run. This only reads the array.</li>
+ *   <li>The strictly descending runs are reversed in parallel, and the runs
+ *       are pushed to the run heap.</li>
+ * </ol>
+ *
+ * @param <T> the array component type.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+final class ParallelRunHeapBuilder<T> {
+
+    /**
+     * The minimum number of array components per chunk. Shorter inputs are
+     * handled by the sequential run heap builder.
+     */
+    static final int MINIMUM_CHUNK_LENGTH = 1 << 13;
+
+    /**
+     * The number of chunks per worker thread. Having more chunks than workers
+     * helps balancing the load.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * The maximum number of runs processed by a single task in the third and
+     * fourth phase.
+     */
+    private static final int RUNS_PER_TASK = 1 << 12;
+
+    /**
+     * The initial capacity of the global and the chunk-local run arrays,
+     * which grow as runs are found.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The copy of the input array range.
+     */
+    private final T[] array;
+
+    /**
+     * The array component comparator.
+     */
+    private final Comparator<? super T> comparator;
+
+    /**
+     * The starting indices of the global runs.
+     */
+    private int[] runStarts;
+
+    /**
+     * The (inclusive) ending indices of the global runs.
+     */
+    private int[] runEnds;
+
+    /**
+     * Indicates which global runs are strictly descending.
+     */
+    private boolean[] runDescending;
+
+    /**
+     * Indicates which global runs would be appended to their predecessors.
+     */
+    private boolean[] runAppended;
+
+    /**
+     * The number of global runs.
+     */
+    private int runs;
+
+    /**
+     * Constructs the parallel run heap builder.
+     *
+     * @param array      the copy of the target input range.
+     * @param comparator the array component comparator.
+     */
+    ParallelRunHeapBuilder(T[] array, Comparator<? super T> comparator) {
+        this.array = array;
+        this.comparator = comparator;
+    }
+
+    /**
+     * Builds the run heap.
+     *
+     * @return unheapified run heap.
+     */
+    HeapSelectionSort.RunHeap<T> build() {
+        int chunks = Math.min(
+                ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD,
+                array.length / MINIMUM_CHUNK_LENGTH);
+
+        if (chunks < 2) {
+            return new HeapSelectionSort.RunHeapBuilder<>(array, comparator)
+                                        .build();
+        }
+
+        ChunkRuns[] scanners = new ChunkRuns[chunks];
+
+        for (int i = 0; i < chunks; ++i) {
+            scanners[i] = new ChunkRuns(
+                    (int)((long) array.length * i / chunks),
+                    (int)((long) array.length * (i + 1) / chunks));
+        }
+
+        ForkJoinPool.commonPool().invoke(new ChunkScanTask(scanners,
+                                                           0,
+                                                           chunks));
+        stitch(scanners);
+        runAppended = new boolean[runs];
+        ForkJoinPool.commonPool().invoke(new RunTask(0, runs, false));
+        ForkJoinPool.commonPool().invoke(new RunTask(0, runs, true));
+
+        HeapSelectionSort.RunHeap<T> runHeap =
+                new HeapSelectionSort.RunHeap<>(array, comparator, runs);
+
+        for (int i = 0; i < runs; ++i) {
+            if (runAppended[i]) {
+                runHeap.appendRun(runEnds[i] - runStarts[i] + 1);
+            } else {
+                runHeap.pushRun(runStarts[i], runEnds[i]);
+            }
+        }
+
+        return runHeap;
+    }
+
+    // Returns true only if the two adjacent components may belong to the same
+    // run of the given kind.
+    private boolean fits(int index, boolean descending) {
+        int cmp = comparator.compare(array[index], array[index + 1]);
+        return descending ? cmp > 0 : cmp <= 0;
+    }
+
+    // Emulates the sequential run scan using the chunk-local runs.
+    private void stitch(ChunkRuns[] scanners) {
+        int last = array.length - 1;
+        runStarts = new int[INITIAL_CAPACITY];
+        runEnds = new int[INITIAL_CAPACITY];
+        runDescending = new boolean[INITIAL_CAPACITY];
+
+        RunCursor cursor = new RunCursor(scanners);
+        int head = 0;
+
+        while (head < last) {
+            cursor.moveTo(head);
+            boolean descending;
+            int index;
+
+            if (cursor.start() == head && cursor.end() > head) {
+                // The sequential scan is in sync with the chunk scan.
+                descending = cursor.descending();
+                index = cursor.end();
+            } else {
+                descending = !fits(head, false);
+                index = head + 1;
+            }
+
+            while (true) {
+                cursor.moveTo(index);
+
+                if (index < cursor.end()) {
+                    if (cursor.descending() != descending) {
+                        break;
+                    }
+
+                    // Skip the remaining part of the chunk-local run.
+                    index = cursor.end();
+                    continue;
+                }
+
+                // Once here, index is the last component of a chunk-local run.
+                // Unless it is also the last component of its chunk, the run
+                // was terminated by a pair not fitting the current kind.
+                if (index == last
+                        || index < cursor.chunkEnd() - 1
+                        || !fits(index, descending)) {
+                    break;
+                }
+
+                ++index;
+            }
+
+            addRun(head, index, descending);
+            head = index + 1;
+        }
+
+        if (head == last) {
+            // The leftover component is treated as an ascending run.
+            addRun(last, last, false);
+        }
+    }
+
+    // Records a global run, doubling the run arrays if they are full.
+    private void addRun(int start, int end, boolean descending) {
+        if (runs == runStarts.length) {
+            runStarts = Arrays.copyOf(runStarts, 2 * runs);
+            runEnds = Arrays.copyOf(runEnds, 2 * runs);
+            runDescending = Arrays.copyOf(runDescending, 2 * runs);
+        }
+
+        runStarts[runs] = start;
+        runEnds[runs] = end;
+        runDescending[runs] = descending;
+        ++runs;
+    }
+
+    // Decides whether the run at the given index would be appended to the
+    // previous run by the sequential builder. Must be called before the runs
+    // are reversed.
+    private boolean isAppended(int runIndex) {
+        if (runIndex == 0) {
+            return false;
+        }
+
+        int previous = runIndex - 1;
+        boolean leftover = runStarts[runIndex] == runEnds[runIndex];
+
+        if (!leftover && !runDescending[previous]) {
+            return false;
+        }
+
+        // The greatest component of the previous run after reversal:
+        T previousMaximum = runDescending[previous] ?
+                            array[runStarts[previous]] :
+                            array[runEnds[previous]];
+
+        // The least component of the current run after reversal:
+        T currentMinimum = runDescending[runIndex] ?
+                           array[runEnds[runIndex]] :
+                           array[runStarts[runIndex]];
+
+        return comparator.compare(previousMaximum, currentMinimum) <= 0;
+    }
+
+    // Reverses a strictly descending global run.
+    private void reverseRun(int runIndex) {
+        for (int i = runStarts[runIndex], j = runEnds[runIndex];
+                i < j;
+                ++i, --j) {
+            T tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+
+    // Scans a chunk for runs. A lonely component at the end of the chunk
+    // forms a run of length one.
+    private void scanChunk(ChunkRuns chunk) {
+        int last = chunk.chunkEnd - 1;
+        int head = chunk.chunkStart;
+
+        while (head < last) {
+            int index = head + 1;
+            boolean descending =
+                    comparator.compare(array[head], array[index]) > 0;
+
+            if (!descending) {
+                while (index < last
+                        && comparator.compare(array[index],
+                                              array[index + 1]) <= 0) {
+                    ++index;
+                }
+            } else {
+                while (index < last
+                        && comparator.compare(array[index],
+                                              array[index + 1]) > 0) {
+                    ++index;
+                }
+            }
+
+            chunk.addRun(head, index, descending);
+            head = index + 1;
+        }
+
+        if (head == last) {
+            chunk.addRun(head, head, false);
+        }
+    }
+
+    /**
+     * This class holds the runs found in a single chunk.
+     */
+    private static final class ChunkRuns {
+
+        /**
+         * The starting inclusive index of the chunk.
+         */
+        private final int chunkStart;
+
+        /**
+         * The ending exclusive index of the chunk.
+         */
+        private final int chunkEnd;
+
+        /**
+         * The starting indices of the runs in this chunk.
+         */
+        private int[] starts = new int[INITIAL_CAPACITY];
+
+        /**
+         * The (inclusive) ending indices of the runs in this chunk.
+         */
+        private int[] ends = new int[INITIAL_CAPACITY];
+
+        /**
+         * Indicates which runs in this chunk are strictly descending.
+         */
+        private boolean[] descending = new boolean[INITIAL_CAPACITY];
+
+        /**
+         * The number of runs in this chunk.
+         */
+        private int size;
+
+        ChunkRuns(int chunkStart, int chunkEnd) {
+            this.chunkStart = chunkStart;
+            this.chunkEnd = chunkEnd;
+        }
+
+        // Records a run, doubling the run arrays if they are full.
+        void addRun(int start, int end, boolean isDescending) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, 2 * size);
+                ends = Arrays.copyOf(ends, 2 * size);
+                descending = Arrays.copyOf(descending, 2 * size);
+            }
+
+            starts[size] = start;
+            ends[size] = end;
+            descending[size] = isDescending;
+            ++size;
+        }
+    }
+
+    /**
+     * This class walks the chunk-local runs in order of increasing indices.
+     */
+    private final class RunCursor {
+
+        private final ChunkRuns[] scanners;
+        private int chunkIndex;
+        private int runIndex;
+
+        RunCursor(ChunkRuns[] scanners) {
+            this.scanners = scanners;
+        }
+
+        // Moves to the chunk-local run containing the index. The index may
+        // never decrease between two calls.
+        void moveTo(int index) {
+            while (index > scanners[chunkIndex].ends[runIndex]) {
+                if (++runIndex == scanners[chunkIndex].size) {
+                    ++chunkIndex;
+                    runIndex = 0;
+                }
+            }
+        }
+
+        int start() {
+            return scanners[chunkIndex].starts[runIndex];
+        }
+
+        int end() {
+            return scanners[chunkIndex].ends[runIndex];
+        }
+
+        boolean descending() {
+            return scanners[chunkIndex].descending[runIndex];
+        }
+
+        int chunkEnd() {
+            return scanners[chunkIndex].chunkEnd;
+        }
+    }
+
+    /**
+     * This task scans a range of chunks.
+     */
+    private final class ChunkScanTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ChunkRuns[] scanners;
+        private final int from;
+        private final int to;
+
+        ChunkScanTask(ChunkRuns[] scanners, int from, int to) {
+            this.scanners = scanners;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                scanChunk(scanners[from]);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkScanTask(scanners, from, middle),
+                      new ChunkScanTask(scanners, middle, to));
+        }
+    }
+
+    /**
+     * This task either decides the appending of, or reverses, a range of
+     * global runs.
+     */
+    private final class RunTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final boolean reverse;
+
+        RunTask(int from, int to, boolean reverse) {
+            this.from = from;
+            this.to = to;
+            this.reverse = reverse;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > RUNS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RunTask(from, middle, reverse),
+                          new RunTask(middle, to, reverse));
+                return;
+            }
+
+            for (int i = from; i < to; ++i) {
+                if (!reverse) {
+                    runAppended[i] = isAppended(i);
+                } else if (runDescending[i]) {
+                    reverseRun(i);
+                }
+            }
+        }
+    }
+}
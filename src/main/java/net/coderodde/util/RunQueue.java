@@ -0,0 +1,65 @@
+package net.coderodde.util;
+
+/**
+ * This interface defines the priority queue of runs that merges the runs found
+ * by {@link HeapSelectionSort.RunHeapBuilder}. A run is a range of the copy
+ * of the input range that is sorted in ascending order. The builder pushes
+ * the runs in order and may append a run to the most recently pushed one;
+ * after {@link #heapify()}, the queue pops the elements of all the runs in
+ * order. Elements that compare equal must be popped in the order of their
+ * indices, which keeps the merge stable.
+ * <p>
+ * {@link HeapSelectionSort#sort(Object[], int, int, java.util.Comparator)}
+ * drains a {@link HeapSelectionSort.RunHeap} through this interface, and the
+ * merge engines of {@link SortOptions} plug in the other implementations:
+ * {@link LoserTree}, {@link CachedHeadRunHeap} and {@link DaryRunHeap}. Only
+ * the galloping and bottom-up drain modes use the binary run heap directly.
+ *
+ * @param <T> the array component type.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+interface RunQueue<T> {
+
+    /**
+     * Returns the number of runs in this queue.
+     *
+     * @return the number of runs.
+     */
+    int size();
+
+    /**
+     * Appends a run to the end of this queue.
+     *
+     * @param fromIndex the starting inclusive index of the run.
+     * @param toIndex   the ending inclusive index of the run.
+     */
+    void pushRun(int fromIndex, int toIndex);
+
+    /**
+     * Appends a run to the most recently added run.
+     *
+     * @param runLength the length of the appended run.
+     */
+    void appendRun(int runLength);
+
+    /**
+     * Establishes the queue order over all the pushed runs.
+     */
+    void heapify();
+
+    /**
+     * Removes and returns the minimum element stored in this queue.
+     *
+     * @return the minimum element.
+     */
+    T popHead();
+
+    /**
+     * Returns the minimum element stored in this queue without removing it.
+     *
+     * @return the minimum element.
+     */
+    T peekHead();
+}
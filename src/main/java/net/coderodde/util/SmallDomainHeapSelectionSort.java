@@ -0,0 +1,290 @@
+package net.coderodde.util;
+
+/**
+ * This class implements sorting of {@code byte}, {@code short} and
+ * {@code char} arrays. If the input range consists of only a few runs, it is
+ * sorted by the {@code int} run heap. Otherwise, when the range is long enough
+ * to amortize the histogram, it is sorted by counting sort, which runs in
+ * linear time regardless of the run structure.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+final class SmallDomainHeapSelectionSort {
+
+    /**
+     * The maximum number of runs for which the run heap is preferred over
+     * counting sort. Merging at most this many runs costs no more than three
+     * comparisons per element.
+     */
+    static final int MAX_RUN_HEAP_RUNS = 8;
+
+    /**
+     * The minimum range length for which counting sort is considered for
+     * {@code byte} arrays.
+     */
+    static final int BYTE_COUNTING_SORT_THRESHOLD = 64;
+
+    /**
+     * The minimum range length for which counting sort is considered for
+     * {@code short} and {@code char} arrays. The histogram has 65536 buckets,
+     * so shorter ranges are better off with the run heap.
+     */
+    static final int SHORT_COUNTING_SORT_THRESHOLD = 1750;
+
+    /**
+     * The number of distinct {@code byte} values.
+     */
+    private static final int BYTE_DOMAIN_SIZE = 1 << 8;
+
+    /**
+     * The number of distinct {@code short} and {@code char} values.
+     */
+    private static final int SHORT_DOMAIN_SIZE = 1 << 16;
+
+    private SmallDomainHeapSelectionSort() {}
+
+    /**
+     * Sorts the array range {@code array[fromIndex], ..., array[toIndex - 1]}.
+     * The indices are expected to be checked by the caller.
+     *
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    static void sort(byte[] array, int fromIndex, int toIndex) {
+        int rangeLength = toIndex - fromIndex;
+
+        if (rangeLength < 2) {
+            // Trivially sorted.
+            return;
+        }
+
+        if (rangeLength >= BYTE_COUNTING_SORT_THRESHOLD
+                && countRuns(array, fromIndex, toIndex) > MAX_RUN_HEAP_RUNS) {
+            countingSort(array, fromIndex, toIndex);
+            return;
+        }
+
+        int[] aux = new int[rangeLength];
+
+        for (int i = 0; i < rangeLength; ++i) {
+            aux[i] = array[fromIndex + i];
+        }
+
+        IntHeapSelectionSort.RunHeap runHeap =
+                new IntHeapSelectionSort.RunHeapBuilder(aux, rangeLength)
+                        .build();
+        runHeap.heapify();
+
+        for (; fromIndex < toIndex; ++fromIndex) {
+            array[fromIndex] = (byte) runHeap.popHead();
+        }
+    }
+
+    /**
+     * Sorts the array range {@code array[fromIndex], ..., array[toIndex - 1]}.
+     * The indices are expected to be checked by the caller.
+     *
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    static void sort(short[] array, int fromIndex, int toIndex) {
+        int rangeLength = toIndex - fromIndex;
+
+        if (rangeLength < 2) {
+            // Trivially sorted.
+            return;
+        }
+
+        if (rangeLength >= SHORT_COUNTING_SORT_THRESHOLD
+                && countRuns(array, fromIndex, toIndex) > MAX_RUN_HEAP_RUNS) {
+            countingSort(array, fromIndex, toIndex);
+            return;
+        }
+
+        int[] aux = new int[rangeLength];
+
+        for (int i = 0; i < rangeLength; ++i) {
+            aux[i] = array[fromIndex + i];
+        }
+
+        IntHeapSelectionSort.RunHeap runHeap =
+                new IntHeapSelectionSort.RunHeapBuilder(aux, rangeLength)
+                        .build();
+        runHeap.heapify();
+
+        for (; fromIndex < toIndex; ++fromIndex) {
+            array[fromIndex] = (short) runHeap.popHead();
+        }
+    }
+
+    /**
+     * Sorts the array range {@code array[fromIndex], ..., array[toIndex - 1]}.
+     * The indices are expected to be checked by the caller.
+     *
+     * @param array     the array holding the target range.
+     * @param fromIndex the starting inclusive index.
+     * @param toIndex   the ending exclusive index.
+     */
+    static void sort(char[] array, int fromIndex, int toIndex) {
+        int rangeLength = toIndex - fromIndex;
+
+        if (rangeLength < 2) {
+            // Trivially sorted.
+            return;
+        }
+
+        if (rangeLength >= SHORT_COUNTING_SORT_THRESHOLD
+                && countRuns(array, fromIndex, toIndex) > MAX_RUN_HEAP_RUNS) {
+            countingSort(array, fromIndex, toIndex);
+            return;
+        }
+
+        int[] aux = new int[rangeLength];
+
+        for (int i = 0; i < rangeLength; ++i) {
+            aux[i] = array[fromIndex + i];
+        }
+
+        IntHeapSelectionSort.RunHeap runHeap =
+                new IntHeapSelectionSort.RunHeapBuilder(aux, rangeLength)
+                        .build();
+        runHeap.heapify();
+
+        for (; fromIndex < toIndex; ++fromIndex) {
+            array[fromIndex] = (char) runHeap.popHead();
+        }
+    }
+
+    // Counts the ascending and strictly descending runs in the same fashion as
+    // the run heap builder does, without modifying the array. Stops as soon as
+    // the count exceeds MAX_RUN_HEAP_RUNS.
+    private static int countRuns(byte[] array, int fromIndex, int toIndex) {
+        int last = toIndex - 1;
+        int runs = 0;
+        int i = fromIndex;
+
+        while (i < last && runs <= MAX_RUN_HEAP_RUNS) {
+            ++runs;
+
+            if (array[i] <= array[++i]) {
+                while (i < last && array[i] <= array[i + 1]) {
+                    ++i;
+                }
+            } else {
+                while (i < last && array[i] > array[i + 1]) {
+                    ++i;
+                }
+            }
+
+            ++i;
+        }
+
+        return i == last ? runs + 1 : runs;
+    }
+
+    // Counts the runs of a short array.
+    private static int countRuns(short[] array, int fromIndex, int toIndex) {
+        int last = toIndex - 1;
+        int runs = 0;
+        int i = fromIndex;
+
+        while (i < last && runs <= MAX_RUN_HEAP_RUNS) {
+            ++runs;
+
+            if (array[i] <= array[++i]) {
+                while (i < last && array[i] <= array[i + 1]) {
+                    ++i;
+                }
+            } else {
+                while (i < last && array[i] > array[i + 1]) {
+                    ++i;
+                }
+            }
+
+            ++i;
+        }
+
+        return i == last ? runs + 1 : runs;
+    }
+
+    // Counts the runs of a char array.
+    private static int countRuns(char[] array, int fromIndex, int toIndex) {
+        int last = toIndex - 1;
+        int runs = 0;
+        int i = fromIndex;
+
+        while (i < last && runs <= MAX_RUN_HEAP_RUNS) {
+            ++runs;
+
+            if (array[i] <= array[++i]) {
+                while (i < last && array[i] <= array[i + 1]) {
+                    ++i;
+                }
+            } else {
+                while (i < last && array[i] > array[i + 1]) {
+                    ++i;
+                }
+            }
+
+            ++i;
+        }
+
+        return i == last ? runs + 1 : runs;
+    }
+
+    // Sorts a byte range by counting the occurrences of each value.
+    private static void countingSort(byte[] array, int fromIndex, int toIndex) {
+        int[] counts = new int[BYTE_DOMAIN_SIZE];
+
+        for (int i = fromIndex; i < toIndex; ++i) {
+            counts[array[i] - Byte.MIN_VALUE]++;
+        }
+
+        for (int value = 0; value < BYTE_DOMAIN_SIZE; ++value) {
+            byte element = (byte)(value + Byte.MIN_VALUE);
+
+            for (int count = counts[value]; count > 0; --count) {
+                array[fromIndex++] = element;
+            }
+        }
+    }
+
+    // Sorts a short range by counting the occurrences of each value.
+    private static void countingSort(short[] array,
+                                     int fromIndex,
+                                     int toIndex) {
+        int[] counts = new int[SHORT_DOMAIN_SIZE];
+
+        for (int i = fromIndex; i < toIndex; ++i) {
+            counts[array[i] - Short.MIN_VALUE]++;
+        }
+
+        for (int value = 0; value < SHORT_DOMAIN_SIZE; ++value) {
+            short element = (short)(value + Short.MIN_VALUE);
+
+            for (int count = counts[value]; count > 0; --count) {
+                array[fromIndex++] = element;
+            }
+        }
+    }
+
+    // Sorts a char range by counting the occurrences of each value.
+    private static void countingSort(char[] array, int fromIndex, int toIndex) {
+        int[] counts = new int[SHORT_DOMAIN_SIZE];
+
+        for (int i = fromIndex; i < toIndex; ++i) {
+            counts[array[i]]++;
+        }
+
+        for (int value = 0; value < SHORT_DOMAIN_SIZE; ++value) {
+            char element = (char) value;
+
+            for (int count = counts[value]; count > 0; --count) {
+                array[fromIndex++] = element;
+            }
+        }
+    }
+}
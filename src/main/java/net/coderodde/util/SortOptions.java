@@ -0,0 +1,245 @@
+package net.coderodde.util;
+
+import java.util.Objects;
+
+/**
+ * This class holds the tuning options of heap selection sort. Instances are
+ * immutable; each {@code with...} method returns a modified copy.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public final class SortOptions {
+
+    /**
+     * The data structures for merging the runs.
+     */
+    public enum MergeEngine {
+
+        /**
+         * The binary heap of runs. Pops the minimum with up to two
+         * comparisons per level.
+         */
+        RUN_HEAP,
+
+        /**
+         * The tournament tree of losers. Replays the path from the leaf of
+         * the winning run to the root with exactly one comparison per level.
+         */
+        LOSER_TREE,
+
+        /**
+         * The binary heap of runs whose nodes cache the head elements of their
+         * runs. Compares the resident heads instead of loading them from the
+         * input array, which saves cache misses on heaps of many runs.
+         */
+        CACHED_HEAD_RUN_HEAP
+    }
+
+    /**
+     * The default options.
+     */
+    public static final SortOptions DEFAULT =
+            new SortOptions(MergeEngine.RUN_HEAP, false, 0, false, 2);
+
+    /**
+     * The merge engine.
+     */
+    private final MergeEngine mergeEngine;
+
+    /**
+     * Indicates whether the run heap transfers whole blocks of a dominating
+     * run at once.
+     */
+    private final boolean galloping;
+
+    /**
+     * The minimum length of a run. Values below 2 disable the extension of
+     * short runs.
+     */
+    private final int minRunLength;
+
+    /**
+     * Indicates whether the run heap sifts down bottom-up after each pop.
+     */
+    private final boolean bottomUpSiftDown;
+
+    /**
+     * The number of children of each node of the run heap.
+     */
+    private final int heapArity;
+
+    private SortOptions(MergeEngine mergeEngine,
+                        boolean galloping,
+                        int minRunLength,
+                        boolean bottomUpSiftDown,
+                        int heapArity) {
+        this.mergeEngine = mergeEngine;
+        this.galloping = galloping;
+        this.minRunLength = minRunLength;
+        this.bottomUpSiftDown = bottomUpSiftDown;
+        this.heapArity = heapArity;
+    }
+
+    /**
+     * Returns the merge engine.
+     *
+     * @return the merge engine.
+     */
+    public MergeEngine getMergeEngine() {
+        return mergeEngine;
+    }
+
+    /**
+     * Returns {@code true} if galloping is enabled.
+     *
+     * @return {@code true} if galloping is enabled.
+     */
+    public boolean isGalloping() {
+        return galloping;
+    }
+
+    /**
+     * Returns the minimum run length.
+     *
+     * @return the minimum run length.
+     */
+    public int getMinRunLength() {
+        return minRunLength;
+    }
+
+    /**
+     * Returns {@code true} if bottom-up sift down is enabled.
+     *
+     * @return {@code true} if bottom-up sift down is enabled.
+     */
+    public boolean isBottomUpSiftDown() {
+        return bottomUpSiftDown;
+    }
+
+    /**
+     * Returns the arity of the run heap.
+     *
+     * @return the arity of the run heap.
+     */
+    public int getHeapArity() {
+        return heapArity;
+    }
+
+    /**
+     * Returns a copy of these options with the given merge engine.
+     *
+     * @param mergeEngine the merge engine.
+     * @return the modified options.
+     */
+    public SortOptions withMergeEngine(MergeEngine mergeEngine) {
+        return new SortOptions(Objects.requireNonNull(mergeEngine),
+                               galloping,
+                               minRunLength,
+                               bottomUpSiftDown,
+                               heapArity);
+    }
+
+    /**
+     * Returns a copy of these options with galloping enabled or disabled. In
+     * galloping mode, once the head run of the {@link MergeEngine#RUN_HEAP}
+     * has won several times in a row, the block of its elements preceding the
+     * runner-up run is located by exponential and binary search and copied to
+     * the output at once. This pays off on block-structured data, such as
+     * partially merged runs. The {@link MergeEngine#LOSER_TREE} and the
+     * {@link MergeEngine#CACHED_HEAD_RUN_HEAP} ignore this option.
+     *
+     * @param galloping whether to enable galloping.
+     * @return the modified options.
+     */
+    public SortOptions withGalloping(boolean galloping) {
+        return new SortOptions(mergeEngine,
+                               galloping,
+                               minRunLength,
+                               bottomUpSiftDown,
+                               heapArity);
+    }
+
+    /**
+     * Returns a copy of these options with the given minimum run length.
+     * Natural runs shorter than {@code minRunLength} are extended to that
+     * length by stable binary insertion sort before they are added to the
+     * merge engine. On random input this cuts the number of runs, and thus the
+     * depth of the merge engine, by an order of magnitude; values between 16
+     * and 64 work well. Values 0 and 1 disable the extension.
+     *
+     * @param minRunLength the minimum run length.
+     * @return the modified options.
+     */
+    public SortOptions withMinRunLength(int minRunLength) {
+        if (minRunLength < 0) {
+            throw new IllegalArgumentException(
+                    "minRunLength(" + minRunLength + ") < 0");
+        }
+
+        return new SortOptions(mergeEngine,
+                               galloping,
+                               minRunLength,
+                               bottomUpSiftDown,
+                               heapArity);
+    }
+
+    /**
+     * Returns a copy of these options with bottom-up sift down enabled or
+     * disabled. After each pop, the {@link MergeEngine#RUN_HEAP} then walks
+     * from the root to a leaf along the preceding children, comparing only
+     * siblings, and sifts the new head of the popped run up from there. When
+     * the new head sinks deep, which is the common case with many interleaved
+     * runs, this takes about half the comparisons of the ordinary sift down,
+     * and pays off with expensive comparators. When the same run keeps
+     * winning, the ordinary sift down stops after two comparisons, while
+     * bottom-up sift down still walks the whole height of the heap. The
+     * stability of the merge is not affected. The other merge engines and the
+     * galloping drain ignore this option.
+     *
+     * @param bottomUpSiftDown whether to enable bottom-up sift down.
+     * @return the modified options.
+     */
+    public SortOptions withBottomUpSiftDown(boolean bottomUpSiftDown) {
+        return new SortOptions(mergeEngine,
+                               galloping,
+                               minRunLength,
+                               bottomUpSiftDown,
+                               heapArity);
+    }
+
+    /**
+     * Returns a copy of these options with the given arity of the run heap.
+     * With an arity above 2, the {@link MergeEngine#RUN_HEAP} is replaced by a
+     * {@code heapArity}-ary heap whose children of a node are contiguous in
+     * memory. The heap is lower, and a sift down touches fewer cache lines,
+     * but compares each of the children, so the arities 4 and 8 suit merges of
+     * many runs with cheap comparators. The other merge engines, galloping and
+     * bottom-up sift down apply to the binary heap only and are ignored for
+     * higher arities.
+     *
+     * @param heapArity the number of children of each node, at least 2.
+     * @return the modified options.
+     */
+    public SortOptions withHeapArity(int heapArity) {
+        if (heapArity < 2) {
+            throw new IllegalArgumentException(
+                    "heapArity(" + heapArity + ") < 2");
+        }
+
+        return new SortOptions(mergeEngine,
+                               galloping,
+                               minRunLength,
+                               bottomUpSiftDown,
+                               heapArity);
+    }
+
+    @Override
+    public String toString() {
+        return "SortOptions[mergeEngine=" + mergeEngine +
+               ", galloping=" + galloping +
+               ", minRunLength=" + minRunLength +
+               ", bottomUpSiftDown=" + bottomUpSiftDown +
+               ", heapArity=" + heapArity + "]";
+    }
+}
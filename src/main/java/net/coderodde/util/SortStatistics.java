@@ -0,0 +1,182 @@
+package net.coderodde.util;
+
+/**
+ * This class holds the statistics collected by an instrumented run of heap
+ * selection sort; see
+ * {@link HeapSelectionSort#sort(Object[], int, int, java.util.Comparator,
+ * SortStatistics)}. An instance is passed as an out-parameter and is reset at
+ * the beginning of each sort, so that it may be reused across calls.
+ * <p>
+ * A range of at most two runs is sorted in place without the run heap. Then
+ * the build phase covers scanning the runs, the heapify phase is empty, the
+ * drain phase covers merging the two runs, and no sift down levels are
+ * recorded.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public final class SortStatistics {
+
+    /**
+     * The number of comparator calls.
+     */
+    long comparisons;
+
+    /**
+     * The number of element moves.
+     */
+    long moves;
+
+    /**
+     * The number of runs in the run heap after building it.
+     */
+    int runs;
+
+    /**
+     * The number of strictly descending runs that were reversed.
+     */
+    int descendingRuns;
+
+    /**
+     * The number of runs appended to their preceding runs.
+     */
+    int appendedRuns;
+
+    /**
+     * The number of levels the sifted runs descended in the run heap.
+     */
+    long siftDownLevels;
+
+    /**
+     * The duration of building the run heap in nanoseconds.
+     */
+    long buildNanos;
+
+    /**
+     * The duration of heapifying the run heap in nanoseconds.
+     */
+    long heapifyNanos;
+
+    /**
+     * The duration of draining the run heap in nanoseconds.
+     */
+    long drainNanos;
+
+    /**
+     * Returns the number of comparator calls made by the sort.
+     *
+     * @return the number of comparator calls.
+     */
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    /**
+     * Returns the number of element moves made by the sort: the copies of
+     * the input range to the run heap and back, the swaps reversing strictly
+     * descending runs, which count as two moves each, and, for ranges sorted
+     * in place, the copies to and from the merge buffer and the shifts of the
+     * merged runs.
+     *
+     * @return the number of element moves.
+     */
+    public long getMoves() {
+        return moves;
+    }
+
+    /**
+     * Returns the number of runs found by the run heap builder, that is, the
+     * number of runs after appending.
+     *
+     * @return the number of runs.
+     */
+    public int getRuns() {
+        return runs;
+    }
+
+    /**
+     * Returns the number of strictly descending runs that were reversed.
+     *
+     * @return the number of reversed runs.
+     */
+    public int getDescendingRuns() {
+        return descendingRuns;
+    }
+
+    /**
+     * Returns the number of runs that were appended to the run preceding them
+     * instead of being added to the run heap.
+     *
+     * @return the number of appended runs.
+     */
+    public int getAppendedRuns() {
+        return appendedRuns;
+    }
+
+    /**
+     * Returns the total number of levels traversed by sifting runs down the
+     * run heap, both during heapification and draining.
+     *
+     * @return the number of sift down levels.
+     */
+    public long getSiftDownLevels() {
+        return siftDownLevels;
+    }
+
+    /**
+     * Returns the duration of the build phase in nanoseconds. The build phase
+     * copies the input range and splits it into runs.
+     *
+     * @return the duration of the build phase.
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * Returns the duration of the heapify phase in nanoseconds.
+     *
+     * @return the duration of the heapify phase.
+     */
+    public long getHeapifyNanos() {
+        return heapifyNanos;
+    }
+
+    /**
+     * Returns the duration of the drain phase in nanoseconds. The drain phase
+     * pops all the elements back to the input range.
+     *
+     * @return the duration of the drain phase.
+     */
+    public long getDrainNanos() {
+        return drainNanos;
+    }
+
+    /**
+     * Resets all the statistics to zero.
+     */
+    public void reset() {
+        comparisons = 0L;
+        moves = 0L;
+        runs = 0;
+        descendingRuns = 0;
+        appendedRuns = 0;
+        siftDownLevels = 0L;
+        buildNanos = 0L;
+        heapifyNanos = 0L;
+        drainNanos = 0L;
+    }
+
+    @Override
+    public String toString() {
+        return "SortStatistics[comparisons=" + comparisons +
+               ", moves=" + moves +
+               ", runs=" + runs +
+               ", descendingRuns=" + descendingRuns +
+               ", appendedRuns=" + appendedRuns +
+               ", siftDownLevels=" + siftDownLevels +
+               ", buildNanos=" + buildNanos +
+               ", heapifyNanos=" + heapifyNanos +
+               ", drainNanos=" + drainNanos + "]";
+    }
+}
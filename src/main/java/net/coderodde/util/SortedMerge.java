@@ -0,0 +1,421 @@
+package net.coderodde.util;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * This class implements stable k-way merging of sorted sources, such as the
+ * sorted shards of a partitioned result. Arrays and lists are concatenated
+ * into a single working array, in which every source becomes one run of a
+ * {@link HeapSelectionSort.RunHeap}, and are merged by popping the heap.
+ * Iterators are merged lazily by a heap of their current heads. In both cases
+ * the merge is stable: equal elements come out in the order of their sources
+ * in the source list, and within a source in their original order.
+ * <p>
+ * Every source must be sorted by the given comparator; otherwise the merge
+ * order is unspecified. A {@code null} comparator stands for the natural
+ * order.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public final class SortedMerge {
+
+    private SortedMerge() {}
+
+    /**
+     * Returns an iterator over the stable merge of the sorted arrays. The
+     * arrays are copied right away, which takes linear time; after that, each
+     * call to {@code next()} costs {@code O(log k)} for {@code k} arrays.
+     *
+     * @param <T>        the element type.
+     * @param arrays     the sorted arrays.
+     * @param comparator the element comparator.
+     * @return an iterator over the merged elements.
+     */
+    public static <T> Iterator<T> mergeArrays(
+            List<? extends T[]> arrays,
+            Comparator<? super T> comparator) {
+        Objects.requireNonNull(arrays);
+        int length = totalLength(arrays);
+        return createIterator(copyArrays(arrays, length, comparator),
+                              length,
+                              comparator);
+    }
+
+    /**
+     * Returns an iterator over the stable merge of the sorted lists. The
+     * lists are copied right away, which takes linear time; after that, each
+     * call to {@code next()} costs {@code O(log k)} for {@code k} lists.
+     *
+     * @param <T>        the element type.
+     * @param lists      the sorted lists.
+     * @param comparator the element comparator.
+     * @return an iterator over the merged elements.
+     */
+    public static <T> Iterator<T> mergeLists(
+            List<? extends List<? extends T>> lists,
+            Comparator<? super T> comparator) {
+        Objects.requireNonNull(lists);
+        int length = totalListLength(lists);
+        return createIterator(copyLists(lists, length, comparator),
+                              length,
+                              comparator);
+    }
+
+    /**
+     * Returns an iterator lazily merging the sorted iterators. Only the first
+     * element of each iterator is consumed up front; after that, each call to
+     * {@code next()} advances one iterator and costs {@code O(log k)} for
+     * {@code k} iterators.
+     *
+     * @param <T>        the element type.
+     * @param iterators  the iterators over the sorted sources.
+     * @param comparator the element comparator.
+     * @return an iterator over the merged elements.
+     */
+    public static <T> Iterator<T> mergeIterators(
+            List<? extends Iterator<? extends T>> iterators,
+            Comparator<? super T> comparator) {
+        Objects.requireNonNull(iterators);
+        return new IteratorHeap<>(iterators, effective(comparator));
+    }
+
+    /**
+     * Stably merges the sorted arrays into {@code target[targetIndex], ...}.
+     *
+     * @param <T>         the element type.
+     * @param arrays      the sorted arrays.
+     * @param comparator  the element comparator.
+     * @param target      the array receiving the merged elements.
+     * @param targetIndex the starting index in the target array.
+     */
+    public static <T> void mergeArraysInto(List<? extends T[]> arrays,
+                                           Comparator<? super T> comparator,
+                                           T[] target,
+                                           int targetIndex) {
+        Objects.requireNonNull(arrays);
+        Objects.requireNonNull(target);
+        int length = totalLength(arrays);
+        HeapSelectionSort.checkTargetIndex(target.length, targetIndex, length);
+        drain(copyArrays(arrays, length, comparator),
+              target,
+              targetIndex,
+              length);
+    }
+
+    /**
+     * Stably merges the sorted lists into {@code target[targetIndex], ...}.
+     *
+     * @param <T>         the element type.
+     * @param lists       the sorted lists.
+     * @param comparator  the element comparator.
+     * @param target      the array receiving the merged elements.
+     * @param targetIndex the starting index in the target array.
+     */
+    public static <T> void mergeListsInto(
+            List<? extends List<? extends T>> lists,
+            Comparator<? super T> comparator,
+            T[] target,
+            int targetIndex) {
+        Objects.requireNonNull(lists);
+        Objects.requireNonNull(target);
+        int length = totalListLength(lists);
+        HeapSelectionSort.checkTargetIndex(target.length, targetIndex, length);
+        drain(copyLists(lists, length, comparator),
+              target,
+              targetIndex,
+              length);
+    }
+
+    // Returns the given comparator, or the natural one if it is null.
+    @SuppressWarnings("unchecked")
+    private static <T> Comparator<? super T> effective(
+            Comparator<? super T> comparator) {
+        return comparator != null ?
+                comparator :
+                (Comparator<? super T>) HeapSelectionSort.NATURAL_COMPARATOR;
+    }
+
+    // Copies the arrays to a working array of the given length and returns
+    // the heapified heap of its runs.
+    private static <T> HeapSelectionSort.RunHeap<T> copyArrays(
+            List<? extends T[]> arrays,
+            int length,
+            Comparator<? super T> comparator) {
+        T[] aux = newArray(length);
+        HeapSelectionSort.RunHeap<T> runHeap =
+                new HeapSelectionSort.RunHeap<>(aux,
+                                                effective(comparator),
+                                                arrays.size());
+        int auxIndex = 0;
+
+        for (T[] array : arrays) {
+            System.arraycopy(array, 0, aux, auxIndex, array.length);
+            pushRun(runHeap, auxIndex, array.length);
+            auxIndex += array.length;
+        }
+
+        runHeap.heapify();
+        return runHeap;
+    }
+
+    // Copies the lists to a working array of the given length and returns
+    // the heapified heap of its runs.
+    private static <T> HeapSelectionSort.RunHeap<T> copyLists(
+            List<? extends List<? extends T>> lists,
+            int length,
+            Comparator<? super T> comparator) {
+        T[] aux = newArray(length);
+        HeapSelectionSort.RunHeap<T> runHeap =
+                new HeapSelectionSort.RunHeap<>(aux,
+                                                effective(comparator),
+                                                lists.size());
+        int auxIndex = 0;
+
+        for (List<? extends T> list : lists) {
+            int fromIndex = auxIndex;
+
+            for (T element : list) {
+                aux[auxIndex++] = element;
+            }
+
+            pushRun(runHeap, fromIndex, auxIndex - fromIndex);
+        }
+
+        runHeap.heapify();
+        return runHeap;
+    }
+
+    // Pushes the run aux[fromIndex .. fromIndex + length - 1] unless it is
+    // empty.
+    private static void pushRun(HeapSelectionSort.RunHeap<?> runHeap,
+                                int fromIndex,
+                                int length) {
+        if (length > 0) {
+            runHeap.pushRun(fromIndex, fromIndex + length - 1);
+        }
+    }
+
+    // Wraps the heapified run heap into an iterator.
+    private static <T> Iterator<T> createIterator(
+            HeapSelectionSort.RunHeap<T> runHeap,
+            int length,
+            Comparator<? super T> comparator) {
+        return new HeapSelectionSort.SortedSpliterator<>(runHeap,
+                                                         length,
+                                                         comparator)
+                                    .iterator();
+    }
+
+    // Pops length elements from the heapified run heap to target.
+    private static <T> void drain(HeapSelectionSort.RunHeap<T> runHeap,
+                                  T[] target,
+                                  int targetIndex,
+                                  int length) {
+        for (int i = 0; i < length; ++i) {
+            target[targetIndex++] = runHeap.popHead();
+        }
+    }
+
+    // Creates the working array; generic arrays cannot be created directly.
+    @SuppressWarnings("unchecked")
+    private static <T> T[] newArray(int length) {
+        return (T[]) new Object[length];
+    }
+
+    // Returns the total length of the arrays.
+    private static int totalLength(List<? extends Object[]> arrays) {
+        int length = 0;
+
+        for (Object[] array : arrays) {
+            length += array.length;
+        }
+
+        return length;
+    }
+
+    // Returns the total size of the lists.
+    private static int totalListLength(List<? extends List<?>> lists) {
+        int length = 0;
+
+        for (List<?> list : lists) {
+            length += list.size();
+        }
+
+        return length;
+    }
+
+    /**
+     * This class implements an iterator merging other iterators by a binary
+     * heap of their current heads. Node {@code i} consists of the head
+     * {@code heads[i]} and the iterator {@code sources[i]} it was taken from,
+     * whose position in the source list, {@code sourceIndices[i]}, resolves
+     * ties.
+     *
+     * @param <T> the element type.
+     */
+    private static final class IteratorHeap<T> implements Iterator<T> {
+
+        /**
+         * The element comparator.
+         */
+        private final Comparator<? super T> comparator;
+
+        /**
+         * The iterators of the nodes.
+         */
+        private final Iterator<? extends T>[] sources;
+
+        /**
+         * The positions of the iterators of the nodes in the source list.
+         */
+        private final int[] sourceIndices;
+
+        /**
+         * The current heads of the iterators of the nodes.
+         */
+        private final Object[] heads;
+
+        /**
+         * The number of nodes, that is, the number of non-exhausted iterators.
+         */
+        private int size;
+
+        IteratorHeap(List<? extends Iterator<? extends T>> iterators,
+                     Comparator<? super T> comparator) {
+            this.comparator = comparator;
+            this.sources = newIteratorArray(iterators.size());
+            this.sourceIndices = new int[sources.length];
+            this.heads = new Object[sources.length];
+
+            int sourceIndex = 0;
+
+            for (Iterator<? extends T> iterator : iterators) {
+                if (iterator.hasNext()) {
+                    sources[size] = iterator;
+                    sourceIndices[size] = sourceIndex;
+                    heads[size] = iterator.next();
+                    ++size;
+                }
+
+                ++sourceIndex;
+            }
+
+            for (int i = size / 2; i >= 0; --i) {
+                siftDown(i);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return size > 0;
+        }
+
+        @Override
+        public T next() {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+
+            T ret = head(0);
+
+            if (sources[0].hasNext()) {
+                heads[0] = sources[0].next();
+            } else {
+                // The head iterator is exhausted.
+                --size;
+                sources[0] = sources[size];
+                sourceIndices[0] = sourceIndices[size];
+                heads[0] = heads[size];
+                sources[size] = null;
+                heads[size] = null;
+            }
+
+            siftDown(0);
+            return ret;
+        }
+
+        // Returns true only if the node at index1 should precede the node at
+        // index2.
+        private boolean isLessThan(int index1, int index2) {
+            int cmp = comparator.compare(head(index1), head(index2));
+
+            if (cmp != 0) {
+                return cmp < 0;
+            }
+
+            return sourceIndices[index1] < sourceIndices[index2];
+        }
+
+        // Returns true only if the node at index should precede the node
+        // consisting of the given head and source index.
+        private boolean isLessThan(int index, T head, int sourceIndex) {
+            int cmp = comparator.compare(head(index), head);
+
+            if (cmp != 0) {
+                return cmp < 0;
+            }
+
+            return sourceIndices[index] < sourceIndex;
+        }
+
+        // Returns the head of the node at index.
+        @SuppressWarnings("unchecked")
+        private T head(int index) {
+            return (T) heads[index];
+        }
+
+        // Restores the heap invariant by moving the node at index down. The
+        // node is held aside while the smaller children move up into the
+        // hole, and is stored once at its final position.
+        private void siftDown(int index) {
+            if (index >= size) {
+                return;
+            }
+
+            Iterator<? extends T> source = sources[index];
+            int sourceIndex = sourceIndices[index];
+            T head = head(index);
+
+            while (true) {
+                int childIndex = (index << 1) + 1;
+
+                if (childIndex >= size) {
+                    break;
+                }
+
+                int rightChildIndex = childIndex + 1;
+
+                if (rightChildIndex < size
+                        && isLessThan(rightChildIndex, childIndex)) {
+                    childIndex = rightChildIndex;
+                }
+
+                if (!isLessThan(childIndex, head, sourceIndex)) {
+                    break;
+                }
+
+                sources[index] = sources[childIndex];
+                sourceIndices[index] = sourceIndices[childIndex];
+                heads[index] = heads[childIndex];
+                index = childIndex;
+            }
+
+            sources[index] = source;
+            sourceIndices[index] = sourceIndex;
+            heads[index] = head;
+        }
+
+        // Creates an array of iterators; generic arrays cannot be created
+        // directly.
+        @SuppressWarnings("unchecked")
+        private static <T> Iterator<? extends T>[] newIteratorArray(
+                int length) {
+            return (Iterator<? extends T>[]) new Iterator<?>[length];
+        }
+    }
+}
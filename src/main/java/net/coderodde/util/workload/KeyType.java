@@ -0,0 +1,105 @@
+package net.coderodde.util.workload;
+
+/**
+ * This enumeration lists the element types a workload can be generated as.
+ * Each type maps the generated {@code int} keys to elements in an
+ * order-preserving way, so the run structure of a workload is the same for
+ * every type.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public enum KeyType {
+
+    /**
+     * {@link Integer} elements equal to the keys.
+     */
+    INTEGER {
+        @Override
+        public Integer[] createElements(int[] keys) {
+            Integer[] elements = new Integer[keys.length];
+
+            for (int i = 0; i < keys.length; ++i) {
+                elements[i] = keys[i];
+            }
+
+            return elements;
+        }
+    },
+
+    /**
+     * {@link Long} elements, the keys shifted to the upper half of a
+     * {@code long}.
+     */
+    LONG {
+        @Override
+        public Long[] createElements(int[] keys) {
+            Long[] elements = new Long[keys.length];
+
+            for (int i = 0; i < keys.length; ++i) {
+                elements[i] = (long) keys[i] << 32;
+            }
+
+            return elements;
+        }
+    },
+
+    /**
+     * {@link String} elements, the keys as zero-padded decimal numbers.
+     */
+    STRING {
+        @Override
+        public String[] createElements(int[] keys) {
+            String[] elements = new String[keys.length];
+
+            for (int i = 0; i < keys.length; ++i) {
+                elements[i] = toPaddedString(keys[i]);
+            }
+
+            return elements;
+        }
+    },
+
+    /**
+     * {@link KeyedRecord} elements, which remember their original indices.
+     */
+    RECORD {
+        @Override
+        public KeyedRecord[] createElements(int[] keys) {
+            KeyedRecord[] elements = new KeyedRecord[keys.length];
+
+            for (int i = 0; i < keys.length; ++i) {
+                elements[i] = new KeyedRecord(keys[i], i);
+            }
+
+            return elements;
+        }
+    };
+
+    /**
+     * The number of digits of the largest {@code int}.
+     */
+    private static final int DIGITS = 10;
+
+    /**
+     * Maps the non-negative keys to elements of this type. The runtime type
+     * of the returned array is the element type, for example
+     * {@code Integer[]} for {@link #INTEGER}.
+     *
+     * @param keys the keys.
+     * @return the elements.
+     */
+    public abstract Object[] createElements(int[] keys);
+
+    // Returns the key as a decimal string of DIGITS characters.
+    private static String toPaddedString(int key) {
+        char[] chars = new char[DIGITS];
+
+        for (int i = DIGITS - 1; i >= 0; --i) {
+            chars[i] = (char)('0' + key % 10);
+            key /= 10;
+        }
+
+        return new String(chars);
+    }
+}
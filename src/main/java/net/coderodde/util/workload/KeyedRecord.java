@@ -0,0 +1,62 @@
+package net.coderodde.util.workload;
+
+/**
+ * This class implements a custom workload element: an {@code int} key and the
+ * index of the element in the generated workload. The natural order compares
+ * the keys only, so that sorting the records and checking that equal keys keep
+ * ascending indices verifies stability.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public final class KeyedRecord implements Comparable<KeyedRecord> {
+
+    /**
+     * The sort key.
+     */
+    private final int key;
+
+    /**
+     * The index of this record in the generated workload.
+     */
+    private final int index;
+
+    /**
+     * Constructs a record.
+     *
+     * @param key   the sort key.
+     * @param index the index of the record in its workload.
+     */
+    public KeyedRecord(int key, int index) {
+        this.key = key;
+        this.index = index;
+    }
+
+    /**
+     * Returns the sort key.
+     *
+     * @return the sort key.
+     */
+    public int getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the index of this record in the generated workload.
+     *
+     * @return the original index.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public int compareTo(KeyedRecord other) {
+        return Integer.compare(key, other.key);
+    }
+
+    @Override
+    public String toString() {
+        return key + "@" + index;
+    }
+}
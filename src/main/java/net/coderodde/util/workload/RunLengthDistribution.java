@@ -0,0 +1,89 @@
+package net.coderodde.util.workload;
+
+import java.util.Random;
+
+/**
+ * This enumeration lists the ways a workload of a given length is split into
+ * runs.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public enum RunLengthDistribution {
+
+    /**
+     * All runs have (almost) equal length.
+     */
+    EQUAL {
+        @Override
+        double weight(int run, int runs, Random random) {
+            return 1.0;
+        }
+    },
+
+    /**
+     * The run lengths are proportional to uniformly random weights.
+     */
+    UNIFORM {
+        @Override
+        double weight(int run, int runs, Random random) {
+            return random.nextDouble();
+        }
+    },
+
+    /**
+     * The run lengths are exponentially distributed: a few long runs and many
+     * short ones, in random order.
+     */
+    EXPONENTIAL {
+        @Override
+        double weight(int run, int runs, Random random) {
+            return -Math.log(1.0 - random.nextDouble());
+        }
+    };
+
+    /**
+     * Returns the relative weight of the length of a run.
+     *
+     * @param run    the index of the run.
+     * @param runs   the number of runs.
+     * @param random the random number generator.
+     * @return the non-negative weight of the run.
+     */
+    abstract double weight(int run, int runs, Random random);
+
+    /**
+     * Splits {@code length} into {@code runs} positive run lengths and returns
+     * the run bounds: run {@code i} occupies the indices from
+     * {@code bounds[i]} inclusive to {@code bounds[i + 1]} exclusive.
+     *
+     * @param length the total length, at least {@code runs}.
+     * @param runs   the number of runs, at least one.
+     * @param random the random number generator.
+     * @return the array of {@code runs + 1} run bounds.
+     */
+    int[] createBounds(int length, int runs, Random random) {
+        double[] prefixWeights = new double[runs + 1];
+
+        for (int run = 0; run < runs; ++run) {
+            prefixWeights[run + 1] = prefixWeights[run]
+                                   + weight(run, runs, random);
+        }
+
+        // Each run gets one component and a share of the rest proportional to
+        // its weight.
+        int[] bounds = new int[runs + 1];
+        double total = prefixWeights[runs];
+        int rest = length - runs;
+
+        for (int run = 1; run < runs; ++run) {
+            int share = total > 0.0
+                      ? (int)(rest * (prefixWeights[run] / total))
+                      : (int)((long) rest * run / runs);
+            bounds[run] = run + share;
+        }
+
+        bounds[runs] = length;
+        return bounds;
+    }
+}
@@ -0,0 +1,181 @@
+package net.coderodde.util.workload;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * This class generates reproducible workloads from {@link WorkloadSpec}s.
+ * The keys are laid out as follows:
+ * <ol>
+ *   <li>the distinct keys are spread evenly over the workload, each key
+ *       occurring (almost) equally often, and shuffled;</li>
+ *   <li>the workload is split into runs as per the run length
+ *       distribution, each run is sorted, and with the given probability
+ *       reversed;</li>
+ *   <li>the given number of random adjacent pairs are swapped.</li>
+ * </ol>
+ * The keys are non-negative and less than the length of the workload.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public final class WorkloadGenerator {
+
+    private WorkloadGenerator() {}
+
+    /**
+     * Generates the {@code int} keys of the specified workload.
+     *
+     * @param spec the workload specification.
+     * @return the keys.
+     */
+    public static int[] generateKeys(WorkloadSpec spec) {
+        Objects.requireNonNull(spec);
+        int length = spec.getLength();
+        int[] keys = new int[length];
+
+        if (length == 0) {
+            return keys;
+        }
+
+        Random random = new Random(spec.getSeed());
+        long distinctKeys =
+                Math.max(1L,
+                         Math.round(length * (1.0 - spec.getDuplicateRatio())));
+
+        for (int i = 0; i < length; ++i) {
+            keys[i] = (int)(i * distinctKeys / length);
+        }
+
+        int runs = Math.min(spec.getRuns(), length);
+
+        if (runs > 1) {
+            shuffle(keys, random);
+        }
+
+        int[] bounds = spec.getRunLengthDistribution()
+                           .createBounds(length, runs, random);
+
+        for (int run = 0; run < runs; ++run) {
+            Arrays.sort(keys, bounds[run], bounds[run + 1]);
+
+            if (random.nextDouble() < spec.getDescendingFraction()) {
+                reverse(keys, bounds[run], bounds[run + 1]);
+            }
+        }
+
+        if (length > 1) {
+            for (int i = 0; i < spec.getInversions(); ++i) {
+                swap(keys, random.nextInt(length - 1));
+            }
+        }
+
+        return keys;
+    }
+
+    /**
+     * Generates the specified workload as elements of the given type.
+     *
+     * @param spec    the workload specification.
+     * @param keyType the element type.
+     * @return the elements, in an array whose runtime type matches
+     *         {@code keyType}.
+     */
+    public static Object[] generate(WorkloadSpec spec, KeyType keyType) {
+        Objects.requireNonNull(keyType);
+        return keyType.createElements(generateKeys(spec));
+    }
+
+    /**
+     * Generates the specified workload as custom objects. The key mapper must
+     * preserve the order of the keys for the run structure to carry over.
+     *
+     * @param <T>          the element type.
+     * @param spec         the workload specification.
+     * @param keyMapper    maps each key to an element.
+     * @param arrayFactory creates the array of the elements.
+     * @return the elements.
+     */
+    public static <T> T[] generate(WorkloadSpec spec,
+                                   IntFunction<? extends T> keyMapper,
+                                   IntFunction<T[]> arrayFactory) {
+        Objects.requireNonNull(keyMapper);
+        Objects.requireNonNull(arrayFactory);
+        int[] keys = generateKeys(spec);
+        T[] elements = arrayFactory.apply(keys.length);
+
+        for (int i = 0; i < keys.length; ++i) {
+            elements[i] = keyMapper.apply(keys[i]);
+        }
+
+        return elements;
+    }
+
+    /**
+     * Generates the specified workload as {@link Integer}s.
+     *
+     * @param spec the workload specification.
+     * @return the elements.
+     */
+    public static Integer[] generateIntegers(WorkloadSpec spec) {
+        return (Integer[]) generate(spec, KeyType.INTEGER);
+    }
+
+    /**
+     * Generates the specified workload as {@link Long}s.
+     *
+     * @param spec the workload specification.
+     * @return the elements.
+     */
+    public static Long[] generateLongs(WorkloadSpec spec) {
+        return (Long[]) generate(spec, KeyType.LONG);
+    }
+
+    /**
+     * Generates the specified workload as {@link String}s.
+     *
+     * @param spec the workload specification.
+     * @return the elements.
+     */
+    public static String[] generateStrings(WorkloadSpec spec) {
+        return (String[]) generate(spec, KeyType.STRING);
+    }
+
+    /**
+     * Generates the specified workload as {@link KeyedRecord}s.
+     *
+     * @param spec the workload specification.
+     * @return the elements.
+     */
+    public static KeyedRecord[] generateRecords(WorkloadSpec spec) {
+        return (KeyedRecord[]) generate(spec, KeyType.RECORD);
+    }
+
+    // Shuffles the array by Fisher-Yates.
+    private static void shuffle(int[] keys, Random random) {
+        for (int i = keys.length - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            int tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+    }
+
+    // Reverses keys[fromIndex], ..., keys[toIndex - 1].
+    private static void reverse(int[] keys, int fromIndex, int toIndex) {
+        for (int i = fromIndex, j = toIndex - 1; i < j; ++i, --j) {
+            int tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+    }
+
+    // Swaps keys[index] and keys[index + 1].
+    private static void swap(int[] keys, int index) {
+        int tmp = keys[index];
+        keys[index] = keys[index + 1];
+        keys[index + 1] = tmp;
+    }
+}
@@ -0,0 +1,348 @@
+package net.coderodde.util.workload;
+
+import java.util.Objects;
+
+/**
+ * This class describes a reproducible workload: the length of the array, the
+ * number of runs and the distribution of their lengths, the fraction of
+ * descending runs, the fraction of duplicate keys, the number of random
+ * inversions and the seed of the random number generator. Instances are
+ * immutable; each {@code with...} method returns a modified copy. Equal
+ * specifications produce equal workloads on every platform and version, as
+ * the generator relies only on {@link java.util.Random}, whose algorithm is
+ * fixed.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public final class WorkloadSpec {
+
+    /**
+     * The length of the workload.
+     */
+    private final int length;
+
+    /**
+     * The target number of runs.
+     */
+    private final int runs;
+
+    /**
+     * The distribution of the run lengths.
+     */
+    private final RunLengthDistribution runLengthDistribution;
+
+    /**
+     * The fraction of runs that are descending.
+     */
+    private final double descendingFraction;
+
+    /**
+     * The fraction of keys that duplicate another key.
+     */
+    private final double duplicateRatio;
+
+    /**
+     * The number of random adjacent transpositions applied at the end.
+     */
+    private final int inversions;
+
+    /**
+     * The seed of the random number generator.
+     */
+    private final long seed;
+
+    private WorkloadSpec(int length,
+                         int runs,
+                         RunLengthDistribution runLengthDistribution,
+                         double descendingFraction,
+                         double duplicateRatio,
+                         int inversions,
+                         long seed) {
+        this.length = length;
+        this.runs = runs;
+        this.runLengthDistribution = runLengthDistribution;
+        this.descendingFraction = descendingFraction;
+        this.duplicateRatio = duplicateRatio;
+        this.inversions = inversions;
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the specification of a single ascending run of distinct keys
+     * of the given length, with the seed 0.
+     *
+     * @param length the length of the workload.
+     * @return the specification.
+     */
+    public static WorkloadSpec ofLength(int length) {
+        checkNonNegative("length", length);
+        return new WorkloadSpec(length,
+                                1,
+                                RunLengthDistribution.EQUAL,
+                                0.0,
+                                0.0,
+                                0,
+                                0L);
+    }
+
+    /**
+     * Returns the length of the workload.
+     *
+     * @return the length.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the target number of runs.
+     *
+     * @return the number of runs.
+     */
+    public int getRuns() {
+        return runs;
+    }
+
+    /**
+     * Returns the distribution of the run lengths.
+     *
+     * @return the run length distribution.
+     */
+    public RunLengthDistribution getRunLengthDistribution() {
+        return runLengthDistribution;
+    }
+
+    /**
+     * Returns the fraction of descending runs.
+     *
+     * @return the fraction of descending runs.
+     */
+    public double getDescendingFraction() {
+        return descendingFraction;
+    }
+
+    /**
+     * Returns the fraction of duplicate keys.
+     *
+     * @return the fraction of duplicate keys.
+     */
+    public double getDuplicateRatio() {
+        return duplicateRatio;
+    }
+
+    /**
+     * Returns the number of random inversions.
+     *
+     * @return the number of random inversions.
+     */
+    public int getInversions() {
+        return inversions;
+    }
+
+    /**
+     * Returns the seed of the random number generator.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a copy of this specification with the given length.
+     *
+     * @param length the length of the workload.
+     * @return the modified specification.
+     */
+    public WorkloadSpec withLength(int length) {
+        checkNonNegative("length", length);
+        return new WorkloadSpec(length,
+                                runs,
+                                runLengthDistribution,
+                                descendingFraction,
+                                duplicateRatio,
+                                inversions,
+                                seed);
+    }
+
+    /**
+     * Returns a copy of this specification with the given target number of
+     * runs. The number of runs is capped by the length. With {@code runs}
+     * equal to the length, every run consists of a single key, which yields a
+     * random permutation of the keys.
+     * <p>
+     * Consecutive runs are generated independently, so two runs may
+     * occasionally continue each other, and equal keys break descending runs
+     * that are meant to be strict. Hence the number of natural runs found by
+     * a sort may deviate slightly from the target, mostly when the runs are
+     * short.
+     *
+     * @param runs the target number of runs.
+     * @return the modified specification.
+     */
+    public WorkloadSpec withRuns(int runs) {
+        if (runs < 1) {
+            throw new IllegalArgumentException("runs(" + runs + ") < 1");
+        }
+
+        return new WorkloadSpec(length,
+                                runs,
+                                runLengthDistribution,
+                                descendingFraction,
+                                duplicateRatio,
+                                inversions,
+                                seed);
+    }
+
+    /**
+     * Returns a copy of this specification with the given distribution of the
+     * run lengths.
+     *
+     * @param runLengthDistribution the run length distribution.
+     * @return the modified specification.
+     */
+    public WorkloadSpec withRunLengthDistribution(
+            RunLengthDistribution runLengthDistribution) {
+        return new WorkloadSpec(length,
+                                runs,
+                                Objects.requireNonNull(runLengthDistribution),
+                                descendingFraction,
+                                duplicateRatio,
+                                inversions,
+                                seed);
+    }
+
+    /**
+     * Returns a copy of this specification with the given fraction of
+     * descending runs. Each run is descending with this probability.
+     *
+     * @param descendingFraction the fraction within {@code [0, 1]}.
+     * @return the modified specification.
+     */
+    public WorkloadSpec withDescendingFraction(double descendingFraction) {
+        checkFraction("descendingFraction", descendingFraction);
+        return new WorkloadSpec(length,
+                                runs,
+                                runLengthDistribution,
+                                descendingFraction,
+                                duplicateRatio,
+                                inversions,
+                                seed);
+    }
+
+    /**
+     * Returns a copy of this specification with the given fraction of
+     * duplicate keys. A workload of length {@code n} contains
+     * {@code max(1, round(n * (1 - duplicateRatio)))} distinct keys, each
+     * occurring (almost) equally often. The ratio 0 makes all the keys
+     * distinct; the ratio 1 makes them all equal.
+     *
+     * @param duplicateRatio the ratio within {@code [0, 1]}.
+     * @return the modified specification.
+     */
+    public WorkloadSpec withDuplicateRatio(double duplicateRatio) {
+        checkFraction("duplicateRatio", duplicateRatio);
+        return new WorkloadSpec(length,
+                                runs,
+                                runLengthDistribution,
+                                descendingFraction,
+                                duplicateRatio,
+                                inversions,
+                                seed);
+    }
+
+    /**
+     * Returns a copy of this specification with the given number of random
+     * inversions. After the runs are laid out, this many random adjacent
+     * pairs are swapped. Each swap adds or removes exactly one inversion, so
+     * on presorted input the count of added inversions is close to, and at
+     * most, {@code inversions}.
+     *
+     * @param inversions the number of random adjacent swaps.
+     * @return the modified specification.
+     */
+    public WorkloadSpec withInversions(int inversions) {
+        checkNonNegative("inversions", inversions);
+        return new WorkloadSpec(length,
+                                runs,
+                                runLengthDistribution,
+                                descendingFraction,
+                                duplicateRatio,
+                                inversions,
+                                seed);
+    }
+
+    /**
+     * Returns a copy of this specification with the given seed.
+     *
+     * @param seed the seed of the random number generator.
+     * @return the modified specification.
+     */
+    public WorkloadSpec withSeed(long seed) {
+        return new WorkloadSpec(length,
+                                runs,
+                                runLengthDistribution,
+                                descendingFraction,
+                                duplicateRatio,
+                                inversions,
+                                seed);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof WorkloadSpec)) {
+            return false;
+        }
+
+        WorkloadSpec other = (WorkloadSpec) o;
+        return length == other.length
+                && runs == other.runs
+                && runLengthDistribution == other.runLengthDistribution
+                && Double.compare(descendingFraction,
+                                  other.descendingFraction) == 0
+                && Double.compare(duplicateRatio, other.duplicateRatio) == 0
+                && inversions == other.inversions
+                && seed == other.seed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(length,
+                            runs,
+                            runLengthDistribution,
+                            descendingFraction,
+                            duplicateRatio,
+                            inversions,
+                            seed);
+    }
+
+    @Override
+    public String toString() {
+        return "WorkloadSpec[length=" + length +
+               ", runs=" + runs +
+               ", runLengthDistribution=" + runLengthDistribution +
+               ", descendingFraction=" + descendingFraction +
+               ", duplicateRatio=" + duplicateRatio +
+               ", inversions=" + inversions +
+               ", seed=" + seed + "]";
+    }
+
+    private static void checkNonNegative(String name, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException(
+                    name + "(" + value + ") < 0");
+        }
+    }
+
+    private static void checkFraction(String name, double value) {
+        if (!(value >= 0.0 && value <= 1.0)) {
+            throw new IllegalArgumentException(
+                    name + "(" + value + ") is not within [0, 1]");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package net.coderodde.util.workload;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import net.coderodde.util.HeapSelectionSort;
+import net.coderodde.util.SortStatistics;
+
+/**
+ * This class implements the command line interface of the workload generator.
+ * It prints the generated elements one per line, or with
+ * {@code --statistics}, the specification and the statistics of sorting the
+ * workload by {@link HeapSelectionSort}.
+ * <p>
+ * Usage: {@code WorkloadTool [--length n] [--runs r]
+ * [--distribution EQUAL|UNIFORM|EXPONENTIAL] [--descending fraction]
+ * [--duplicates ratio] [--inversions k] [--seed s]
+ * [--type INTEGER|LONG|STRING|RECORD] [--statistics]}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class WorkloadTool {
+
+    private static final int DEFAULT_LENGTH = 20;
+
+    public static void main(String[] args) {
+        WorkloadSpec spec = WorkloadSpec.ofLength(DEFAULT_LENGTH);
+        KeyType keyType = KeyType.INTEGER;
+        boolean statistics = false;
+
+        for (int i = 0; i < args.length; ++i) {
+            String option = args[i];
+
+            if (option.equals("--statistics")) {
+                statistics = true;
+                continue;
+            }
+
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException(
+                        "Missing the value of " + option);
+            }
+
+            String value = args[++i];
+
+            switch (option) {
+                case "--length":
+                    spec = spec.withLength(Integer.parseInt(value));
+                    break;
+
+                case "--runs":
+                    spec = spec.withRuns(Integer.parseInt(value));
+                    break;
+
+                case "--distribution":
+                    spec = spec.withRunLengthDistribution(
+                            RunLengthDistribution.valueOf(value));
+                    break;
+
+                case "--descending":
+                    spec = spec.withDescendingFraction(
+                            Double.parseDouble(value));
+                    break;
+
+                case "--duplicates":
+                    spec = spec.withDuplicateRatio(Double.parseDouble(value));
+                    break;
+
+                case "--inversions":
+                    spec = spec.withInversions(Integer.parseInt(value));
+                    break;
+
+                case "--seed":
+                    spec = spec.withSeed(Long.parseLong(value));
+                    break;
+
+                case "--type":
+                    keyType = KeyType.valueOf(value);
+                    break;
+
+                default:
+                    throw new IllegalArgumentException(
+                            "Unknown option: " + option);
+            }
+        }
+
+        Object[] elements = WorkloadGenerator.generate(spec, keyType);
+
+        if (statistics) {
+            SortStatistics sortStatistics = new SortStatistics();
+            HeapSelectionSort.sort(elements,
+                                   (Comparator<Object>) null,
+                                   sortStatistics);
+            System.out.println(spec);
+            System.out.println(sortStatistics);
+            return;
+        }
+
+        PrintWriter out = new PrintWriter(
+                new BufferedWriter(
+                        new OutputStreamWriter(System.out,
+                                               StandardCharsets.UTF_8)));
+
+        for (Object element : elements) {
+            out.println(element);
+        }
+
+        out.flush();
+    }
+}
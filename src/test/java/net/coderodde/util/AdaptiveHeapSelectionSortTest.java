@@ -0,0 +1,135 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class tests {@link HeapSelectionSort#adaptiveSort(Object[], int, int,
+ * Comparator, AdaptivePolicy)}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class AdaptiveHeapSelectionSortTest {
+
+    private static final int SIZE = 2000;
+
+    private static final Comparator<Element> COMPARATOR =
+            Comparator.comparingInt(e -> e.key);
+
+    // An element with a key. Equal keys are told apart by identity.
+    private static final class Element {
+
+        final int key;
+
+        Element(int key) {
+            this.key = key;
+        }
+    }
+
+    @Test
+    public void mergesFewRunsByTheRunHeap() {
+        assertSortsStably(4, AdaptivePolicy.Strategy.RUN_HEAP_MERGE);
+    }
+
+    @Test
+    public void mergesLongRunsPairwise() {
+        assertSortsStably(100, AdaptivePolicy.Strategy.PAIRWISE_MERGE);
+    }
+
+    @Test
+    public void fallsBackOnShortRuns() {
+        assertSortsStably(SIZE / 2, AdaptivePolicy.Strategy.FALLBACK_SORT);
+    }
+
+    @Test
+    public void honorsThePolicy() {
+        Element[] array = createElements(new Random(1L), SIZE / 2);
+        Element[] expected = array.clone();
+        Arrays.sort(expected, COMPARATOR);
+
+        AdaptivePolicy policy =
+                AdaptivePolicy.DEFAULT.withMaxRunHeapRuns(Integer.MAX_VALUE);
+
+        assertEquals(AdaptivePolicy.Strategy.RUN_HEAP_MERGE,
+                     HeapSelectionSort.adaptiveSort(array,
+                                                    COMPARATOR,
+                                                    policy));
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void reportsNoStrategyForTrivialRanges() {
+        Integer[] array = { 2, 1 };
+
+        assertEquals(AdaptivePolicy.Strategy.NONE,
+                     HeapSelectionSort.adaptiveSort(array, 1, 1, null,
+                                                    AdaptivePolicy.DEFAULT));
+        assertEquals(AdaptivePolicy.Strategy.NONE,
+                     HeapSelectionSort.adaptiveSort(array, 0, 1, null,
+                                                    AdaptivePolicy.DEFAULT));
+        assertArrayEquals(new Integer[]{ 2, 1 }, array);
+    }
+
+    @Test
+    public void sortsDescendingRuns() {
+        Random random = new Random(2L);
+
+        for (int runs : new int[]{ 2, 50 }) {
+            Element[] array = createElements(random, runs);
+
+            for (int i = 0; i < runs; i += 2) {
+                Arrays.sort(array,
+                            i * SIZE / runs,
+                            (i + 1) * SIZE / runs,
+                            COMPARATOR.reversed());
+            }
+
+            Element[] expected = array.clone();
+            Arrays.sort(expected, COMPARATOR);
+
+            HeapSelectionSort.adaptiveSort(array,
+                                           COMPARATOR,
+                                           AdaptivePolicy.DEFAULT);
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    // Sorts an input of about the given number of ascending runs by the
+    // default policy, and checks the result and the strategy.
+    private static void assertSortsStably(int runs,
+                                          AdaptivePolicy.Strategy strategy) {
+        Element[] array = createElements(new Random(runs), runs);
+        Element[] expected = array.clone();
+        Arrays.sort(expected, COMPARATOR);
+
+        assertEquals(strategy,
+                     HeapSelectionSort.adaptiveSort(array,
+                                                    COMPARATOR,
+                                                    AdaptivePolicy.DEFAULT));
+        assertArrayEquals(expected, array);
+    }
+
+    // Creates an array of about the given number of ascending runs with keys
+    // in a small domain.
+    private static Element[] createElements(Random random, int runs) {
+        Element[] array = new Element[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            array[i] = new Element(random.nextInt(20));
+        }
+
+        for (int i = 0; i < runs; ++i) {
+            Arrays.sort(array,
+                        i * SIZE / runs,
+                        (i + 1) * SIZE / runs,
+                        COMPARATOR);
+        }
+
+        return array;
+    }
+}
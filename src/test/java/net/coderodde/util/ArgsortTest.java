@@ -0,0 +1,114 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * This class tests the {@code argsort} methods of {@link HeapSelectionSort}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class ArgsortTest {
+
+    private static final int SIZE = 2000;
+
+    @Test
+    public void argsortsObjectKeysStably() {
+        Random random = new Random(1L);
+        String[] keys = new String[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            keys[i] = Integer.toString(random.nextInt(100));
+        }
+
+        String[] original = keys.clone();
+        Comparator<String> comparator = Comparator.comparingInt(String::length);
+
+        assertArrayEquals(expectedPermutation(comparator, keys),
+                          HeapSelectionSort.argsort(keys, comparator));
+        assertArrayEquals(expectedPermutation(Comparator.naturalOrder(), keys),
+                          HeapSelectionSort.argsort(keys));
+        assertArrayEquals(original, keys);
+    }
+
+    @Test
+    public void argsortsIntKeysStably() {
+        Random random = new Random(2L);
+        int[] keys = new int[SIZE];
+        Integer[] boxed = new Integer[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            keys[i] = boxed[i] = random.nextInt(50) - 25;
+        }
+
+        int[] original = keys.clone();
+
+        assertArrayEquals(
+                expectedPermutation(Comparator.<Integer>naturalOrder(), boxed),
+                HeapSelectionSort.argsort(keys));
+        assertArrayEquals(original, keys);
+    }
+
+    @Test
+    public void argsortsLongKeysStably() {
+        Random random = new Random(3L);
+        long[] keys = new long[SIZE];
+        Long[] boxed = new Long[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            keys[i] = boxed[i] = (random.nextLong() >> 58) << 40;
+        }
+
+        assertArrayEquals(
+                expectedPermutation(Comparator.<Long>naturalOrder(), boxed),
+                HeapSelectionSort.argsort(keys));
+    }
+
+    @Test
+    public void argsortsDoubleKeysLikeDoubleCompare() {
+        double[] keys = { Double.NaN, 0.0, -0.0, 1.0, Double.NaN, -1.0,
+                          Double.NEGATIVE_INFINITY, -0.0, 0.0 };
+        Double[] boxed = new Double[keys.length];
+
+        for (int i = 0; i < keys.length; ++i) {
+            boxed[i] = keys[i];
+        }
+
+        assertArrayEquals(expectedPermutation(Double::compare, boxed),
+                          HeapSelectionSort.argsort(keys));
+    }
+
+    @Test
+    public void argsortsTrivialArrays() {
+        assertArrayEquals(new int[0], HeapSelectionSort.argsort(new int[0]));
+        assertArrayEquals(new int[]{ 0 },
+                          HeapSelectionSort.argsort(new Integer[]{ 7 }));
+        assertArrayEquals(new int[]{ 0, 1 },
+                          HeapSelectionSort.argsort(new long[]{ 3L, 3L }));
+    }
+
+    // Returns the stable sorting permutation of the keys.
+    private static <T> int[] expectedPermutation(
+            Comparator<? super T> comparator,
+            T[] keys) {
+        Integer[] indices = new Integer[keys.length];
+
+        for (int i = 0; i < indices.length; ++i) {
+            indices[i] = i;
+        }
+
+        Arrays.sort(indices, (i1, i2) -> comparator.compare(keys[i1],
+                                                            keys[i2]));
+        int[] permutation = new int[indices.length];
+
+        for (int i = 0; i < indices.length; ++i) {
+            permutation[i] = indices[i];
+        }
+
+        return permutation;
+    }
+}
@@ -0,0 +1,171 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class tests the {@code double} and {@code float} sorts of
+ * {@link HeapSelectionSort}, which must order the values exactly like
+ * {@link Arrays#sort(double[])} and {@link Arrays#sort(float[])}: {@code -0.0}
+ * before {@code 0.0} and all NaNs last.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class DoubleHeapSelectionSortTest {
+
+    private static final int SIZE = 2000;
+
+    private static final double[] SPECIAL_DOUBLES = {
+        Double.NaN, -0.0, 0.0, Double.POSITIVE_INFINITY,
+        Double.NEGATIVE_INFINITY, Double.MIN_VALUE, -Double.MIN_VALUE,
+        Double.MAX_VALUE, -Double.MAX_VALUE,
+        Double.longBitsToDouble(0x7ff8000000000123L)
+    };
+
+    private static final float[] SPECIAL_FLOATS = {
+        Float.NaN, -0.0f, 0.0f, Float.POSITIVE_INFINITY,
+        Float.NEGATIVE_INFINITY, Float.MIN_VALUE, -Float.MIN_VALUE,
+        Float.MAX_VALUE, -Float.MAX_VALUE, Float.intBitsToFloat(0x7fc00123)
+    };
+
+    @Test
+    public void sortsDoublesLikeArraysSort() {
+        Random random = new Random(1L);
+
+        for (int runs : new int[]{ 1, 2, 3, 16, SIZE }) {
+            double[] array = createDoubles(random, runs);
+            double[] expected = array.clone();
+            Arrays.sort(expected);
+
+            HeapSelectionSort.sort(array);
+            assertBitwiseEquals(expected, array);
+        }
+    }
+
+    @Test
+    public void sortsDoubleRanges() {
+        double[] array = createDoubles(new Random(2L), SIZE);
+        double[] expected = array.clone();
+        Arrays.sort(expected, 100, 1900);
+
+        HeapSelectionSort.sort(array, 100, 1900);
+        assertBitwiseEquals(expected, array);
+    }
+
+    @Test
+    public void ordersSignedZerosAndNaNsOfDoubles() {
+        double[] array = { Double.NaN, 0.0, -0.0, 1.0, -0.0, Double.NaN,
+                           0.0, -1.0 };
+
+        HeapSelectionSort.sort(array);
+        assertBitwiseEquals(new double[]{ -1.0, -0.0, -0.0, 0.0, 0.0, 1.0,
+                                          Double.NaN, Double.NaN },
+                            array);
+    }
+
+    @Test
+    public void sortsFloatsLikeArraysSort() {
+        Random random = new Random(3L);
+
+        for (int runs : new int[]{ 1, 2, 3, 16, SIZE }) {
+            float[] array = createFloats(random, runs);
+            float[] expected = array.clone();
+            Arrays.sort(expected);
+
+            HeapSelectionSort.sort(array);
+            assertBitwiseEquals(expected, array);
+        }
+    }
+
+    @Test
+    public void sortsFloatRanges() {
+        float[] array = createFloats(new Random(4L), SIZE);
+        float[] expected = array.clone();
+        Arrays.sort(expected, 100, 1900);
+
+        HeapSelectionSort.sort(array, 100, 1900);
+        assertBitwiseEquals(expected, array);
+    }
+
+    @Test
+    public void ordersSignedZerosAndNaNsOfFloats() {
+        float[] array = { Float.NaN, 0.0f, -0.0f, 1.0f, -0.0f, Float.NaN,
+                          0.0f, -1.0f };
+
+        HeapSelectionSort.sort(array);
+        assertBitwiseEquals(new float[]{ -1.0f, -0.0f, -0.0f, 0.0f, 0.0f,
+                                         1.0f, Float.NaN, Float.NaN },
+                            array);
+    }
+
+    // Checks that the arrays hold the same values, telling -0.0 from 0.0.
+    // All NaNs are treated as equal.
+    private static void assertBitwiseEquals(double[] expected,
+                                            double[] actual) {
+        assertEquals(expected.length, actual.length);
+
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals("index " + i,
+                         Double.doubleToLongBits(expected[i]),
+                         Double.doubleToLongBits(actual[i]));
+        }
+    }
+
+    // Checks that the arrays hold the same values, telling -0.0f from 0.0f.
+    // All NaNs are treated as equal.
+    private static void assertBitwiseEquals(float[] expected,
+                                            float[] actual) {
+        assertEquals(expected.length, actual.length);
+
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals("index " + i,
+                         Float.floatToIntBits(expected[i]),
+                         Float.floatToIntBits(actual[i]));
+        }
+    }
+
+    // Creates an array of about the given number of runs, seasoned with the
+    // special values after the runs are laid out.
+    private static double[] createDoubles(Random random, int runs) {
+        double[] array = new double[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            array[i] = random.nextInt(100) - 50.0;
+        }
+
+        for (int i = 0; i < runs; ++i) {
+            Arrays.sort(array, i * SIZE / runs, (i + 1) * SIZE / runs);
+        }
+
+        for (int i = 0; i < 50; ++i) {
+            array[random.nextInt(SIZE)] =
+                    SPECIAL_DOUBLES[random.nextInt(SPECIAL_DOUBLES.length)];
+        }
+
+        return array;
+    }
+
+    // Creates an array of about the given number of runs, seasoned with the
+    // special values after the runs are laid out.
+    private static float[] createFloats(Random random, int runs) {
+        float[] array = new float[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            array[i] = random.nextInt(100) - 50.0f;
+        }
+
+        for (int i = 0; i < runs; ++i) {
+            Arrays.sort(array, i * SIZE / runs, (i + 1) * SIZE / runs);
+        }
+
+        for (int i = 0; i < 50; ++i) {
+            array[random.nextInt(SIZE)] =
+                    SPECIAL_FLOATS[random.nextInt(SPECIAL_FLOATS.length)];
+        }
+
+        return array;
+    }
+}
@@ -0,0 +1,119 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class tests {@link HeapSelectionSorter}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class HeapSelectionSorterTest {
+
+    private static final Comparator<Element> COMPARATOR =
+            Comparator.comparingInt(e -> e.key);
+
+    // An element with a key. Equal keys are told apart by identity.
+    private static final class Element {
+
+        final int key;
+
+        Element(int key) {
+            this.key = key;
+        }
+    }
+
+    @Test
+    public void sortsStablyAcrossCalls() {
+        Random random = new Random(1L);
+        HeapSelectionSorter<Element> sorter =
+                new HeapSelectionSorter<>(COMPARATOR);
+
+        for (int length : new int[]{ 0, 1, 2, 100, 3000, 50, 1000 }) {
+            Element[] array = createElements(random, length, 20);
+            Element[] expected = array.clone();
+            Arrays.sort(expected, COMPARATOR);
+
+            sorter.sort(array);
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    @Test
+    public void sortsOnlyTheRange() {
+        Element[] array = createElements(new Random(2L), 1000, 20);
+        Element[] expected = array.clone();
+        Arrays.sort(expected, 100, 900, COMPARATOR);
+
+        new HeapSelectionSorter<>(COMPARATOR).sort(array, 100, 900);
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void sortsInNaturalOrder() {
+        Integer[] array = { 3, 1, 2, 5, 4, 0 };
+
+        new HeapSelectionSorter<Integer>().sort(array);
+        assertArrayEquals(new Integer[]{ 0, 1, 2, 3, 4, 5 }, array);
+    }
+
+    @Test
+    public void reusesTheWorkspace() {
+        Random random = new Random(3L);
+        HeapSelectionSorter<Element> sorter =
+                new HeapSelectionSorter<>(COMPARATOR);
+        assertEquals(0, sorter.getCapacity());
+
+        sorter.sort(createElements(random, 1000, 1000));
+        int capacity = sorter.getCapacity();
+        assertEquals(1000, capacity);
+
+        sorter.sort(createElements(random, 500, 1000));
+        sorter.sort(createElements(random, 1000, 1000));
+        assertEquals(capacity, sorter.getCapacity());
+    }
+
+    @Test
+    public void growsOnlyToTheShorterRunForTwoRuns() {
+        Element[] array = createElements(new Random(4L), 1000, 1000);
+        Arrays.sort(array, 0, 100, COMPARATOR);
+        Arrays.sort(array, 100, 1000, COMPARATOR);
+        Element[] expected = array.clone();
+        Arrays.sort(expected, COMPARATOR);
+
+        HeapSelectionSorter<Element> sorter =
+                new HeapSelectionSorter<>(COMPARATOR);
+        sorter.sort(array);
+
+        assertArrayEquals(expected, array);
+        assertEquals(100, sorter.getCapacity());
+    }
+
+    @Test
+    public void doesNotGrowForPresortedInput() {
+        Integer[] array = { 5, 4, 3, 2, 1 };
+        HeapSelectionSorter<Integer> sorter = new HeapSelectionSorter<>();
+        sorter.sort(array);
+
+        assertArrayEquals(new Integer[]{ 1, 2, 3, 4, 5 }, array);
+        assertEquals(0, sorter.getCapacity());
+    }
+
+    // Creates an array of elements with keys in [0, domain).
+    private static Element[] createElements(Random random,
+                                            int length,
+                                            int domain) {
+        Element[] array = new Element[length];
+
+        for (int i = 0; i < length; ++i) {
+            array[i] = new Element(random.nextInt(domain));
+        }
+
+        return array;
+    }
+}
@@ -0,0 +1,191 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This class tests the in-place fast paths of heap selection sort for ranges
+ * of at most two runs.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class InPlaceRunMergeTest {
+
+    private static final Comparator<Element> COMPARATOR =
+            Comparator.comparingInt(e -> e.key);
+
+    // An element with a key. Equal keys are told apart by identity.
+    private static final class Element {
+
+        final int key;
+
+        Element(int key) {
+            this.key = key;
+        }
+    }
+
+    // The exception thrown by the failing comparator.
+    private static final class ComparatorException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    @Test
+    public void mergesTwoRunsStably() {
+        Random random = new Random(1L);
+
+        for (int middle : new int[]{ 1, 10, 500, 990, 999 }) {
+            Element[] array = createTwoRuns(random, 1000, middle, 20);
+            Element[] expected = array.clone();
+            Arrays.sort(expected, COMPARATOR);
+
+            HeapSelectionSort.sort(array, COMPARATOR);
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    @Test
+    public void mergesTwoDescendingRuns() {
+        Element[] array = new Element[8];
+        int[] keys = { 9, 7, 5, 3, 8, 6, 4, 2 };
+
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = new Element(keys[i]);
+        }
+
+        Element[] expected = array.clone();
+        Arrays.sort(expected, COMPARATOR);
+
+        assertTrue(InPlaceRunMerge.trySort(array,
+                                           0,
+                                           array.length,
+                                           COMPARATOR,
+                                           null));
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void keepsEqualElementsOfADescendingRunInPlace() {
+        Element[] array = new Element[6];
+        int[] keys = { 3, 3, 2, 2, 1, 1 };
+
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = new Element(keys[i]);
+        }
+
+        Element[] expected = array.clone();
+        Arrays.sort(expected, COMPARATOR);
+
+        HeapSelectionSort.sort(array, COMPARATOR);
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void rejectsThreeRuns() {
+        Integer[] array = { 1, 2, 0, 1, 0 };
+
+        assertFalse(InPlaceRunMerge.trySort(array,
+                                            0,
+                                            array.length,
+                                            Integer::compare,
+                                            null));
+    }
+
+    @Test
+    public void leavesAPermutationWhenTheComparatorThrows() {
+        Random random = new Random(2L);
+
+        for (int middle : new int[]{ 100, 900 }) {
+            Element[] input = createTwoRuns(random, 1000, middle, 50);
+
+            // The scan takes 999 comparisons, the rest fail in the merge.
+            for (int failAt = 0; failAt < 1100; failAt += 7) {
+                Element[] array = input.clone();
+
+                try {
+                    HeapSelectionSort.sort(array,
+                                           createFailingComparator(failAt));
+                    fail("The comparator did not throw.");
+                } catch (ComparatorException ex) {
+                    // Expected.
+                }
+
+                assertPermutation(input, array);
+            }
+        }
+    }
+
+    @Test
+    public void leavesAPermutationWhenTheComparatorThrowsInTheSorter() {
+        Element[] input = createTwoRuns(new Random(3L), 1000, 300, 50);
+        HeapSelectionSorter<Element> sorter =
+                new HeapSelectionSorter<>(createFailingComparator(1050));
+        Element[] array = input.clone();
+
+        try {
+            sorter.sort(array);
+            fail("The comparator did not throw.");
+        } catch (ComparatorException ex) {
+            // Expected.
+        }
+
+        assertPermutation(input, array);
+    }
+
+    // Returns a comparator that throws on the call number failAt.
+    private static Comparator<Element> createFailingComparator(int failAt) {
+        int[] calls = new int[1];
+        return (e1, e2) -> {
+            if (calls[0]++ == failAt) {
+                throw new ComparatorException();
+            }
+
+            return COMPARATOR.compare(e1, e2);
+        };
+    }
+
+    // Checks that the two arrays hold the same elements by identity.
+    private static void assertPermutation(Element[] expected,
+                                          Element[] actual) {
+        Map<Element, Integer> counts = new IdentityHashMap<>();
+
+        for (Element element : expected) {
+            counts.merge(element, 1, Integer::sum);
+        }
+
+        for (Element element : actual) {
+            counts.merge(element, -1, Integer::sum);
+        }
+
+        for (int count : counts.values()) {
+            assertEquals(0, count);
+        }
+    }
+
+    // Creates an array of the given length consisting of two ascending runs
+    // meeting at middle, with keys in [0, domain).
+    private static Element[] createTwoRuns(Random random,
+                                           int length,
+                                           int middle,
+                                           int domain) {
+        Element[] array = new Element[length];
+
+        for (int i = 0; i < length; ++i) {
+            array[i] = new Element(random.nextInt(domain));
+        }
+
+        Arrays.sort(array, 0, middle, COMPARATOR);
+        Arrays.sort(array, middle, length, COMPARATOR);
+        return array;
+    }
+}
@@ -0,0 +1,128 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * This class tests the {@code int} and {@code long} sorts of
+ * {@link HeapSelectionSort}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class IntHeapSelectionSortTest {
+
+    private static final int SIZE = 2000;
+
+    @Test
+    public void sortsIntArrays() {
+        Random random = new Random(1L);
+
+        for (int runs : new int[]{ 1, 2, 3, 16, SIZE }) {
+            int[] array = createInts(random, runs);
+            int[] expected = array.clone();
+            Arrays.sort(expected);
+
+            HeapSelectionSort.sort(array);
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    @Test
+    public void sortsIntRanges() {
+        int[] array = createInts(new Random(2L), SIZE);
+        int[] expected = array.clone();
+        Arrays.sort(expected, 100, 1900);
+
+        HeapSelectionSort.sort(array, 100, 1900);
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void sortsIntExtremes() {
+        int[] array = { 0, Integer.MAX_VALUE, -1, Integer.MIN_VALUE, 1,
+                        Integer.MIN_VALUE, Integer.MAX_VALUE };
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+
+        HeapSelectionSort.sort(array);
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void sortsLongArrays() {
+        Random random = new Random(3L);
+
+        for (int runs : new int[]{ 1, 2, 3, 16, SIZE }) {
+            long[] array = createLongs(random, runs);
+            long[] expected = array.clone();
+            Arrays.sort(expected);
+
+            HeapSelectionSort.sort(array);
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    @Test
+    public void sortsLongRanges() {
+        long[] array = createLongs(new Random(4L), SIZE);
+        long[] expected = array.clone();
+        Arrays.sort(expected, 100, 1900);
+
+        HeapSelectionSort.sort(array, 100, 1900);
+        assertArrayEquals(expected, array);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsInvalidRanges() {
+        HeapSelectionSort.sort(new int[3], 2, 1);
+    }
+
+    // Creates an array of about the given number of runs, alternately
+    // ascending and descending.
+    private static int[] createInts(Random random, int runs) {
+        int[] array = new int[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            array[i] = random.nextInt(100) - 50;
+        }
+
+        for (int i = 0; i < runs; ++i) {
+            int fromIndex = i * SIZE / runs;
+            int toIndex = (i + 1) * SIZE / runs;
+            Arrays.sort(array, fromIndex, toIndex);
+
+            if (i % 2 == 1) {
+                reverse(array, fromIndex, toIndex);
+            }
+        }
+
+        return array;
+    }
+
+    // Creates an array of about the given number of runs.
+    private static long[] createLongs(Random random, int runs) {
+        long[] array = new long[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            array[i] = random.nextLong() >> random.nextInt(64);
+        }
+
+        for (int i = 0; i < runs; ++i) {
+            Arrays.sort(array, i * SIZE / runs, (i + 1) * SIZE / runs);
+        }
+
+        return array;
+    }
+
+    // Reverses array[fromIndex .. toIndex - 1].
+    private static void reverse(int[] array, int fromIndex, int toIndex) {
+        for (--toIndex; fromIndex < toIndex; ++fromIndex, --toIndex) {
+            int tmp = array[fromIndex];
+            array[fromIndex] = array[toIndex];
+            array[toIndex] = tmp;
+        }
+    }
+}
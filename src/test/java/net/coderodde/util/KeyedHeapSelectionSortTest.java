@@ -0,0 +1,98 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * This class tests the key extractor sorts of {@link HeapSelectionSort}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class KeyedHeapSelectionSortTest {
+
+    private static final int SIZE = 2000;
+
+    // An element with a key. Equal keys are told apart by identity.
+    private static final class Element {
+
+        final int key;
+
+        Element(int key) {
+            this.key = key;
+        }
+    }
+
+    @Test
+    public void sortByIntIsStable() {
+        Element[] array = createElements(new Random(1L), 50);
+        Element[] expected = array.clone();
+        Arrays.sort(expected, Comparator.comparingInt(e -> e.key));
+
+        HeapSelectionSort.sortByInt(array, e -> e.key);
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void sortByIntSortsOnlyTheRange() {
+        Element[] array = createElements(new Random(2L), 50);
+        Element[] expected = array.clone();
+        Arrays.sort(expected, 100, 1500, Comparator.comparingInt(e -> e.key));
+
+        HeapSelectionSort.sortByInt(array, 100, 1500, e -> e.key);
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void sortByLongIsStable() {
+        Element[] array = createElements(new Random(3L), 50);
+        Element[] expected = array.clone();
+        Arrays.sort(expected,
+                    Comparator.comparingLong(e -> (long) e.key << 32));
+
+        HeapSelectionSort.sortByLong(array, e -> (long) e.key << 32);
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void sortByDoubleOrdersLikeDoubleCompare() {
+        double[] keys = { Double.NaN, 0.0, -0.0, 1.0, Double.NaN, -1.0,
+                          Double.NEGATIVE_INFINITY, -0.0, 0.0 };
+        Element[] array = new Element[keys.length];
+
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = new Element(i);
+        }
+
+        Element[] expected = array.clone();
+        Arrays.sort(expected,
+                    (e1, e2) -> Double.compare(keys[e1.key], keys[e2.key]));
+
+        HeapSelectionSort.sortByDouble(array, e -> keys[e.key]);
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void sortByIntHandlesTrivialRanges() {
+        Element[] array = createElements(new Random(4L), 10);
+        Element[] expected = array.clone();
+
+        HeapSelectionSort.sortByInt(array, 5, 5, e -> e.key);
+        HeapSelectionSort.sortByInt(array, 5, 6, e -> e.key);
+        assertArrayEquals(expected, array);
+    }
+
+    // Creates an array of elements with keys in [0, domain).
+    private static Element[] createElements(Random random, int domain) {
+        Element[] array = new Element[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            array[i] = new Element(random.nextInt(domain));
+        }
+
+        return array;
+    }
+}
@@ -0,0 +1,126 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * This class tests {@link HeapSelectionSort#parallelSort(Object[], int, int,
+ * Comparator)}. The inputs are long enough to be cut into several slices even
+ * on a single core machine.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class ParallelHeapSelectionSortTest {
+
+    private static final int SIZE =
+            8 * ParallelHeapSelectionSort.MINIMUM_SLICE_LENGTH;
+
+    private static final Comparator<Element> COMPARATOR =
+            Comparator.comparingInt(e -> e.key);
+
+    // An element with a key. Equal keys are told apart by identity.
+    private static final class Element {
+
+        final int key;
+
+        Element(int key) {
+            this.key = key;
+        }
+    }
+
+    @Test
+    public void isStableOnRandomInput() {
+        assertSortsLikeSequential(createElements(new Random(1L), SIZE, 100),
+                                  0,
+                                  SIZE);
+    }
+
+    @Test
+    public void isStableOnFewRuns() {
+        Element[] array = createElements(new Random(2L), SIZE, 1000);
+
+        for (int i = 0; i < 16; ++i) {
+            Arrays.sort(array, i * SIZE / 16, (i + 1) * SIZE / 16, COMPARATOR);
+        }
+
+        assertSortsLikeSequential(array, 0, SIZE);
+    }
+
+    @Test
+    public void isStableOnDescendingRuns() {
+        Element[] array = createElements(new Random(3L), SIZE, 1000);
+
+        for (int i = 0; i < 64; ++i) {
+            Arrays.sort(array,
+                        i * SIZE / 64,
+                        (i + 1) * SIZE / 64,
+                        COMPARATOR.reversed());
+        }
+
+        assertSortsLikeSequential(array, 0, SIZE);
+    }
+
+    @Test
+    public void isStableOnManyEqualKeys() {
+        assertSortsLikeSequential(createElements(new Random(4L), SIZE, 2),
+                                  0,
+                                  SIZE);
+    }
+
+    @Test
+    public void sortsOnlyTheRange() {
+        assertSortsLikeSequential(createElements(new Random(5L), SIZE, 100),
+                                  1000,
+                                  SIZE - 1000);
+    }
+
+    @Test
+    public void sortsInNaturalOrder() {
+        Random random = new Random(6L);
+        Integer[] array = new Integer[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            array[i] = random.nextInt();
+        }
+
+        Integer[] expected = array.clone();
+        Arrays.sort(expected);
+
+        HeapSelectionSort.parallelSort(array);
+        assertArrayEquals(expected, array);
+    }
+
+    // Sorts the range of a copy of the array both sequentially and in
+    // parallel, and checks that both results equal the stable sort of the
+    // range element by element.
+    private static void assertSortsLikeSequential(Element[] array,
+                                                  int fromIndex,
+                                                  int toIndex) {
+        Element[] expected = array.clone();
+        Arrays.sort(expected, fromIndex, toIndex, COMPARATOR);
+
+        Element[] sequential = array.clone();
+        HeapSelectionSort.sort(sequential, fromIndex, toIndex, COMPARATOR);
+
+        HeapSelectionSort.parallelSort(array, fromIndex, toIndex, COMPARATOR);
+        assertArrayEquals(expected, sequential);
+        assertArrayEquals(sequential, array);
+    }
+
+    // Creates an array of elements with keys in [0, domain).
+    private static Element[] createElements(Random random,
+                                            int size,
+                                            int domain) {
+        Element[] array = new Element[size];
+
+        for (int i = 0; i < size; ++i) {
+            array[i] = new Element(random.nextInt(domain));
+        }
+
+        return array;
+    }
+}
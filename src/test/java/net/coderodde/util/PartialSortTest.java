@@ -0,0 +1,114 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class tests {@link HeapSelectionSort#partialSort(Object[], int, int,
+ * int, Comparator)}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class PartialSortTest {
+
+    private static final int SIZE = 2000;
+
+    private static final Comparator<Element> COMPARATOR =
+            Comparator.comparingInt(e -> e.key);
+
+    // An element with a key. Equal keys are told apart by identity.
+    private static final class Element {
+
+        final int key;
+
+        Element(int key) {
+            this.key = key;
+        }
+    }
+
+    @Test
+    public void sortsTheSmallestStably() {
+        for (int k : new int[]{ 0, 1, 10, SIZE / 2, SIZE - 1, SIZE }) {
+            Element[] array = createElements(new Random(k), 50);
+            Element[] expected = array.clone();
+            Arrays.sort(expected, COMPARATOR);
+
+            HeapSelectionSort.partialSort(array, k, COMPARATOR);
+
+            assertArrayEquals(Arrays.copyOf(expected, k),
+                              Arrays.copyOf(array, k));
+            assertPermutation(expected, array);
+        }
+    }
+
+    @Test
+    public void sortsOnlyTheRange() {
+        Element[] array = createElements(new Random(1L), 1000);
+        Element[] original = array.clone();
+        Element[] expected = array.clone();
+        Arrays.sort(expected, 100, 1900, COMPARATOR);
+
+        HeapSelectionSort.partialSort(array, 100, 1900, 50, COMPARATOR);
+
+        assertArrayEquals(Arrays.copyOf(expected, 150),
+                          Arrays.copyOf(array, 150));
+        assertArrayEquals(Arrays.copyOfRange(original, 1900, SIZE),
+                          Arrays.copyOfRange(array, 1900, SIZE));
+        assertPermutation(original, array);
+    }
+
+    @Test
+    public void sortsInNaturalOrder() {
+        Integer[] array = { 5, 3, 9, 1, 7, 3 };
+
+        HeapSelectionSort.partialSort(array, 3, null);
+
+        assertArrayEquals(new Integer[]{ 1, 3, 3 }, Arrays.copyOf(array, 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeK() {
+        HeapSelectionSort.partialSort(new Integer[]{ 2, 1 }, -1, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooLargeK() {
+        HeapSelectionSort.partialSort(new Integer[]{ 2, 1 }, 3, null);
+    }
+
+    // Checks that the two arrays hold the same elements by identity.
+    private static void assertPermutation(Element[] expected,
+                                          Element[] actual) {
+        Map<Element, Integer> counts = new IdentityHashMap<>();
+
+        for (Element element : expected) {
+            counts.merge(element, 1, Integer::sum);
+        }
+
+        for (Element element : actual) {
+            counts.merge(element, -1, Integer::sum);
+        }
+
+        for (int count : counts.values()) {
+            assertEquals(0, count);
+        }
+    }
+
+    // Creates an array of elements with keys in [0, domain).
+    private static Element[] createElements(Random random, int domain) {
+        Element[] array = new Element[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            array[i] = new Element(random.nextInt(domain));
+        }
+
+        return array;
+    }
+}
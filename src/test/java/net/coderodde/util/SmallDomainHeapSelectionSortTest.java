@@ -0,0 +1,134 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * This class tests the {@code byte}, {@code short} and {@code char} sorts of
+ * {@link HeapSelectionSort} on both the run heap path and the counting sort
+ * path.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class SmallDomainHeapSelectionSortTest {
+
+    // Long enough for counting sort on every component type.
+    private static final int SIZE =
+            2 * SmallDomainHeapSelectionSort.SHORT_COUNTING_SORT_THRESHOLD;
+
+    // The run counts covering both sides of the run heap limit.
+    private static final int[] RUNS = {
+        1, 2, SmallDomainHeapSelectionSort.MAX_RUN_HEAP_RUNS,
+        SmallDomainHeapSelectionSort.MAX_RUN_HEAP_RUNS + 1, SIZE
+    };
+
+    @Test
+    public void sortsByteArrays() {
+        Random random = new Random(1L);
+
+        for (int runs : RUNS) {
+            byte[] array = new byte[SIZE];
+            random.nextBytes(array);
+            sortRuns(array, runs);
+            byte[] expected = array.clone();
+            Arrays.sort(expected);
+
+            HeapSelectionSort.sort(array);
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    @Test
+    public void sortsShortArrays() {
+        Random random = new Random(2L);
+
+        for (int runs : RUNS) {
+            short[] array = new short[SIZE];
+
+            for (int i = 0; i < SIZE; ++i) {
+                array[i] = (short) random.nextInt();
+            }
+
+            sortRuns(array, runs);
+            short[] expected = array.clone();
+            Arrays.sort(expected);
+
+            HeapSelectionSort.sort(array);
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    @Test
+    public void sortsCharArrays() {
+        Random random = new Random(3L);
+
+        for (int runs : RUNS) {
+            char[] array = new char[SIZE];
+
+            for (int i = 0; i < SIZE; ++i) {
+                array[i] = (char) random.nextInt();
+            }
+
+            sortRuns(array, runs);
+            char[] expected = array.clone();
+            Arrays.sort(expected);
+
+            HeapSelectionSort.sort(array);
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    @Test
+    public void sortsRangesBelowTheCountingSortThresholds() {
+        Random random = new Random(4L);
+        byte[] bytes = new byte[SIZE];
+        random.nextBytes(bytes);
+        byte[] expectedBytes = bytes.clone();
+        Arrays.sort(expectedBytes, 10, 50);
+
+        HeapSelectionSort.sort(bytes, 10, 50);
+        assertArrayEquals(expectedBytes, bytes);
+
+        short[] shorts = new short[SIZE];
+        char[] chars = new char[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            shorts[i] = (short) random.nextInt();
+            chars[i] = (char) random.nextInt();
+        }
+
+        short[] expectedShorts = shorts.clone();
+        char[] expectedChars = chars.clone();
+        Arrays.sort(expectedShorts, 100, 1000);
+        Arrays.sort(expectedChars, 100, 1000);
+
+        HeapSelectionSort.sort(shorts, 100, 1000);
+        HeapSelectionSort.sort(chars, 100, 1000);
+        assertArrayEquals(expectedShorts, shorts);
+        assertArrayEquals(expectedChars, chars);
+    }
+
+    // Sorts the array in the given number of equal blocks.
+    private static void sortRuns(byte[] array, int runs) {
+        for (int i = 0; i < runs; ++i) {
+            Arrays.sort(array, i * SIZE / runs, (i + 1) * SIZE / runs);
+        }
+    }
+
+    // Sorts the array in the given number of equal blocks.
+    private static void sortRuns(short[] array, int runs) {
+        for (int i = 0; i < runs; ++i) {
+            Arrays.sort(array, i * SIZE / runs, (i + 1) * SIZE / runs);
+        }
+    }
+
+    // Sorts the array in the given number of equal blocks.
+    private static void sortRuns(char[] array, int runs) {
+        for (int i = 0; i < runs; ++i) {
+            Arrays.sort(array, i * SIZE / runs, (i + 1) * SIZE / runs);
+        }
+    }
+}
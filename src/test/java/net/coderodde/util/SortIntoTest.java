@@ -0,0 +1,120 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * This class tests {@link HeapSelectionSort#sortInto(Object[], int, int,
+ * Comparator, Object[], int)} and {@link HeapSelectionSort#sortedCopy(Object[],
+ * int, int, Comparator)}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class SortIntoTest {
+
+    private static final int SIZE = 2000;
+
+    private static final Comparator<Element> COMPARATOR =
+            Comparator.comparingInt(e -> e.key);
+
+    // An element with a key. Equal keys are told apart by identity.
+    private static class Element {
+
+        final int key;
+
+        Element(int key) {
+            this.key = key;
+        }
+    }
+
+    // A subclass used to check the component type of the copies.
+    private static final class SubElement extends Element {
+
+        SubElement(int key) {
+            super(key);
+        }
+    }
+
+    @Test
+    public void sortIntoDoesNotMutateTheSource() {
+        Element[] source = createElements(new Random(1L), 50);
+        Element[] original = source.clone();
+        Element[] expected = source.clone();
+        Arrays.sort(expected, 100, 1900, COMPARATOR);
+
+        Element[] target = new Element[SIZE];
+        HeapSelectionSort.sortInto(source, 100, 1900, COMPARATOR, target, 50);
+
+        assertArrayEquals(original, source);
+        assertArrayEquals(Arrays.copyOfRange(expected, 100, 1900),
+                          Arrays.copyOfRange(target, 50, 1850));
+        assertNull(target[49]);
+        assertNull(target[1850]);
+    }
+
+    @Test
+    public void sortIntoHandlesPresortedAndTrivialRanges() {
+        Integer[] source = { 4, 3, 2, 1 };
+        Integer[] target = new Integer[5];
+
+        HeapSelectionSort.sortInto(source, 0, 4, null, target, 1);
+        assertArrayEquals(new Integer[]{ null, 1, 2, 3, 4 }, target);
+
+        HeapSelectionSort.sortInto(source, 2, 3, null, target, 0);
+        assertArrayEquals(new Integer[]{ 2, 1, 2, 3, 4 }, target);
+        assertArrayEquals(new Integer[]{ 4, 3, 2, 1 }, source);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void sortIntoRejectsTooShortTargets() {
+        HeapSelectionSort.sortInto(new Integer[]{ 2, 1, 3 },
+                                   0,
+                                   3,
+                                   null,
+                                   new Integer[3],
+                                   1);
+    }
+
+    @Test
+    public void sortedCopyDoesNotMutateTheSource() {
+        Element[] source = createElements(new Random(2L), 50);
+        Element[] original = source.clone();
+        Element[] expected = source.clone();
+        Arrays.sort(expected, COMPARATOR);
+
+        Element[] copy = HeapSelectionSort.sortedCopy(source, COMPARATOR);
+
+        assertArrayEquals(original, source);
+        assertArrayEquals(expected, copy);
+    }
+
+    @Test
+    public void sortedCopyKeepsTheComponentType() {
+        SubElement[] source = { new SubElement(2), new SubElement(1) };
+
+        Element[] copy = HeapSelectionSort.sortedCopy(source,
+                                                      0,
+                                                      1,
+                                                      COMPARATOR);
+
+        assertEquals(SubElement[].class, copy.getClass());
+        assertEquals(1, copy.length);
+    }
+
+    // Creates an array of elements with keys in [0, domain).
+    private static Element[] createElements(Random random, int domain) {
+        Element[] array = new Element[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            array[i] = new Element(random.nextInt(domain));
+        }
+
+        return array;
+    }
+}
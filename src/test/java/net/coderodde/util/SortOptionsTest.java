@@ -0,0 +1,112 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * This class tests {@link HeapSelectionSort#sort(Object[], int, int,
+ * Comparator, SortOptions)} with every merge engine and mode.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class SortOptionsTest {
+
+    private static final int SIZE = 2000;
+
+    private static final Comparator<Element> COMPARATOR =
+            Comparator.comparingInt(e -> e.key);
+
+    // An element with a key. Equal keys are told apart by identity.
+    private static final class Element {
+
+        final int key;
+
+        Element(int key) {
+            this.key = key;
+        }
+    }
+
+    @Test
+    public void everyConfigurationSortsStably() {
+        Random random = new Random(1L);
+
+        for (SortOptions options : createConfigurations()) {
+            for (int runs : new int[]{ 3, 16, 200, SIZE }) {
+                Element[] array = createElements(random, runs);
+                Element[] expected = array.clone();
+                Arrays.sort(expected, 100, 1900, COMPARATOR);
+
+                HeapSelectionSort.sort(array, 100, 1900, COMPARATOR, options);
+                assertArrayEquals(options.toString(), expected, array);
+            }
+        }
+    }
+
+    @Test
+    public void everyConfigurationSortsInNaturalOrder() {
+        for (SortOptions options : createConfigurations()) {
+            Integer[] array = { 5, 1, 4, 2, 3, 0, 9, 7, 8, 6 };
+
+            HeapSelectionSort.sort(array, null, options);
+            assertArrayEquals(options.toString(),
+                              new Integer[]{ 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 },
+                              array);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeMinRunLengths() {
+        SortOptions.DEFAULT.withMinRunLength(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsHeapAritiesBelowTwo() {
+        SortOptions.DEFAULT.withHeapArity(1);
+    }
+
+    // Returns the options covering each merge engine, heap arity and mode.
+    private static List<SortOptions> createConfigurations() {
+        List<SortOptions> configurations = new ArrayList<>();
+
+        for (SortOptions.MergeEngine engine :
+                SortOptions.MergeEngine.values()) {
+            for (int minRunLength : new int[]{ 0, 32 }) {
+                SortOptions options = SortOptions.DEFAULT
+                        .withMergeEngine(engine)
+                        .withMinRunLength(minRunLength);
+                configurations.add(options);
+                configurations.add(options.withGalloping(true));
+                configurations.add(options.withBottomUpSiftDown(true));
+                configurations.add(options.withHeapArity(4));
+                configurations.add(options.withHeapArity(8));
+            }
+        }
+
+        return configurations;
+    }
+
+    // Creates an array of about the given number of ascending runs with keys
+    // in a small domain.
+    private static Element[] createElements(Random random, int runs) {
+        Element[] array = new Element[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            array[i] = new Element(random.nextInt(40));
+        }
+
+        for (int i = 0; i < runs; ++i) {
+            Arrays.sort(array,
+                        i * SIZE / runs,
+                        (i + 1) * SIZE / runs,
+                        COMPARATOR);
+        }
+
+        return array;
+    }
+}
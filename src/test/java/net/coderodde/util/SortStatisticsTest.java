@@ -0,0 +1,129 @@
+package net.coderodde.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests {@link HeapSelectionSort#sort(Object[], int, int,
+ * Comparator, SortStatistics)} and the statistics it collects.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class SortStatisticsTest {
+
+    private static final int SIZE = 2000;
+
+    private static final Comparator<Element> COMPARATOR =
+            Comparator.comparingInt(e -> e.key);
+
+    // An element with a key. Equal keys are told apart by identity.
+    private static final class Element {
+
+        final int key;
+
+        Element(int key) {
+            this.key = key;
+        }
+    }
+
+    @Test
+    public void sortsStably() {
+        Element[] array = createElements(new Random(1L), 50);
+        Element[] expected = array.clone();
+        Arrays.sort(expected, 100, 1900, COMPARATOR);
+
+        HeapSelectionSort.sort(array,
+                               100,
+                               1900,
+                               COMPARATOR,
+                               new SortStatistics());
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    public void countsEveryComparatorCall() {
+        Element[] array = createElements(new Random(2L), 1000);
+        long[] calls = new long[1];
+        SortStatistics statistics = new SortStatistics();
+
+        HeapSelectionSort.sort(array,
+                               (e1, e2) -> {
+                                   calls[0]++;
+                                   return COMPARATOR.compare(e1, e2);
+                               },
+                               statistics);
+
+        assertEquals(calls[0], statistics.getComparisons());
+        assertTrue(statistics.getRuns() > 2);
+        assertTrue(statistics.getMoves() >= 2 * SIZE);
+        assertTrue(statistics.getSiftDownLevels() > 0);
+    }
+
+    @Test
+    public void countsTheRunsOfPresortedInput() {
+        Integer[] array = new Integer[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            array[i] = SIZE - i;
+        }
+
+        SortStatistics statistics = new SortStatistics();
+        HeapSelectionSort.sort(array, null, statistics);
+
+        assertEquals(1, statistics.getRuns());
+        assertEquals(1, statistics.getDescendingRuns());
+        assertEquals(SIZE - 1, statistics.getComparisons());
+        assertEquals(0, statistics.getSiftDownLevels());
+    }
+
+    @Test
+    public void countsTheMergeOfTwoRuns() {
+        Integer[] array = { 4, 5, 6, 7, 0, 1, 2, 3 };
+        long[] calls = new long[1];
+        SortStatistics statistics = new SortStatistics();
+
+        HeapSelectionSort.sort(array,
+                               (i1, i2) -> {
+                                   calls[0]++;
+                                   return Integer.compare(i1, i2);
+                               },
+                               statistics);
+
+        assertArrayEquals(new Integer[]{ 0, 1, 2, 3, 4, 5, 6, 7 }, array);
+        assertEquals(2, statistics.getRuns());
+        assertEquals(calls[0], statistics.getComparisons());
+        assertEquals(0, statistics.getHeapifyNanos());
+    }
+
+    @Test
+    public void resetsBetweenSorts() {
+        SortStatistics statistics = new SortStatistics();
+        HeapSelectionSort.sort(createElements(new Random(3L), 50),
+                               COMPARATOR,
+                               statistics);
+        HeapSelectionSort.sort(new Integer[]{ 1 }, null, statistics);
+
+        assertEquals(1, statistics.getRuns());
+        assertEquals(0, statistics.getComparisons());
+        assertEquals(0, statistics.getMoves());
+        assertEquals(0, statistics.getDescendingRuns());
+        assertEquals(0, statistics.getAppendedRuns());
+    }
+
+    // Creates an array of elements with keys in [0, domain).
+    private static Element[] createElements(Random random, int domain) {
+        Element[] array = new Element[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            array[i] = new Element(random.nextInt(domain));
+        }
+
+        return array;
+    }
+}
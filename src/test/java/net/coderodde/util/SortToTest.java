@@ -0,0 +1,112 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests the {@code sortTo} methods of {@link HeapSelectionSort}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class SortToTest {
+
+    private static final int SIZE = 2000;
+
+    private static final Comparator<Element> COMPARATOR =
+            Comparator.comparingInt(e -> e.key);
+
+    // An element with a key. Equal keys are told apart by identity.
+    private static final class Element {
+
+        final int key;
+
+        Element(int key) {
+            this.key = key;
+        }
+    }
+
+    @Test
+    public void feedsTheRangeInStableSortedOrder() {
+        Element[] array = createElements(new Random(1L), 50);
+        Element[] original = array.clone();
+        Element[] expected = array.clone();
+        Arrays.sort(expected, 100, 1900, COMPARATOR);
+
+        List<Element> actual = new ArrayList<>();
+        HeapSelectionSort.sortTo(array, 100, 1900, COMPARATOR, actual::add);
+
+        assertArrayEquals(original, array);
+        assertArrayEquals(Arrays.copyOfRange(expected, 100, 1900),
+                          actual.toArray());
+    }
+
+    @Test
+    public void feedsBatchesInFreshArrays() {
+        Element[] array = createElements(new Random(2L), 50);
+        Element[] original = array.clone();
+        Element[] expected = array.clone();
+        Arrays.sort(expected, COMPARATOR);
+
+        List<Element[]> batches = new ArrayList<>();
+        HeapSelectionSort.sortTo(array, COMPARATOR, 300, batches::add);
+
+        assertArrayEquals(original, array);
+        assertEquals(7, batches.size());
+
+        List<Element> actual = new ArrayList<>();
+
+        for (int i = 0; i < batches.size(); ++i) {
+            Element[] batch = batches.get(i);
+            assertEquals(i < 6 ? 300 : 200, batch.length);
+            assertEquals(Element[].class, batch.getClass());
+            actual.addAll(Arrays.asList(batch));
+
+            if (i > 0) {
+                assertNotSame(batches.get(i - 1), batch);
+            }
+        }
+
+        assertArrayEquals(expected, actual.toArray());
+    }
+
+    @Test
+    public void feedsNothingForEmptyRanges() {
+        Integer[] array = { 2, 1 };
+        List<Integer> elements = new ArrayList<>();
+        List<Integer[]> batches = new ArrayList<>();
+
+        HeapSelectionSort.sortTo(array, 1, 1, null, elements::add);
+        HeapSelectionSort.sortTo(array, 1, 1, null, 4, batches::add);
+
+        assertTrue(elements.isEmpty());
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveBatchSizes() {
+        HeapSelectionSort.sortTo(new Integer[]{ 2, 1 },
+                                 null,
+                                 0,
+                                 (Integer[] batch) -> {});
+    }
+
+    // Creates an array of elements with keys in [0, domain).
+    private static Element[] createElements(Random random, int domain) {
+        Element[] array = new Element[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            array[i] = new Element(random.nextInt(domain));
+        }
+
+        return array;
+    }
+}
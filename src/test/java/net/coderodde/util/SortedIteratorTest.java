@@ -0,0 +1,155 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests {@link HeapSelectionSort#sortedIterator(Object[], int, int,
+ * Comparator)} and {@link HeapSelectionSort#sortedSpliterator(Object[], int,
+ * int, Comparator)}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class SortedIteratorTest {
+
+    private static final int SIZE = 2000;
+
+    private static final Comparator<Element> COMPARATOR =
+            Comparator.comparingInt(e -> e.key);
+
+    // An element with a key. Equal keys are told apart by identity.
+    private static final class Element {
+
+        final int key;
+
+        Element(int key) {
+            this.key = key;
+        }
+    }
+
+    @Test
+    public void iteratesInStableSortedOrder() {
+        Element[] array = createElements(new Random(1L), 50);
+        Element[] copy = array.clone();
+        Element[] expected = array.clone();
+        Arrays.sort(expected, 100, 1900, COMPARATOR);
+
+        Iterator<Element> iterator =
+                HeapSelectionSort.sortedIterator(array, 100, 1900, COMPARATOR);
+        List<Element> actual = new ArrayList<>();
+        iterator.forEachRemaining(actual::add);
+
+        assertArrayEquals(Arrays.copyOfRange(expected, 100, 1900),
+                          actual.toArray());
+        assertArrayEquals(copy, array);
+    }
+
+    @Test
+    public void partialConsumptionYieldsTheSmallest() {
+        Element[] array = createElements(new Random(2L), 1000);
+        Element[] expected = array.clone();
+        Arrays.sort(expected, COMPARATOR);
+
+        Iterator<Element> iterator =
+                HeapSelectionSort.sortedIterator(array, COMPARATOR);
+
+        for (int i = 0; i < 10; ++i) {
+            assertSame(expected[i], iterator.next());
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void exhaustedIteratorThrows() {
+        Iterator<Integer> iterator =
+                HeapSelectionSort.sortedIterator(new Integer[]{ 2, 1 }, null);
+        iterator.next();
+        iterator.next();
+        assertFalse(iterator.hasNext());
+        iterator.next();
+    }
+
+    @Test
+    public void iteratesEmptyAndSingletonRanges() {
+        Integer[] array = { 3, 1, 2 };
+
+        assertFalse(HeapSelectionSort.sortedIterator(array, 1, 1, null)
+                                     .hasNext());
+
+        Iterator<Integer> iterator =
+                HeapSelectionSort.sortedIterator(array, 1, 2, null);
+        assertEquals(Integer.valueOf(1), iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void spliteratorReportsSortedCharacteristics() {
+        Element[] array = createElements(new Random(3L), 50);
+        Spliterator<Element> spliterator =
+                HeapSelectionSort.sortedSpliterator(array, COMPARATOR);
+
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SORTED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertSame(COMPARATOR, spliterator.getComparator());
+        assertEquals(SIZE, spliterator.estimateSize());
+    }
+
+    @Test
+    public void spliteratorStreamsInStableSortedOrder() {
+        Element[] array = createElements(new Random(4L), 50);
+        Element[] expected = array.clone();
+        Arrays.sort(expected, COMPARATOR);
+
+        List<Element> actual =
+                StreamSupport.stream(
+                        HeapSelectionSort.sortedSpliterator(array,
+                                                            COMPARATOR),
+                        false)
+                             .collect(Collectors.toList());
+
+        assertArrayEquals(expected, actual.toArray());
+    }
+
+    @Test
+    public void spliteratorTracksTheRemainingSize() {
+        Integer[] array = { 5, 4, 3, 2, 1 };
+        Spliterator<Integer> spliterator =
+                HeapSelectionSort.sortedSpliterator(array, null);
+
+        assertTrue(spliterator.tryAdvance(i -> assertEquals(1, (int) i)));
+        assertEquals(4, spliterator.estimateSize());
+
+        List<Integer> rest = new ArrayList<>();
+        spliterator.forEachRemaining(rest::add);
+
+        assertEquals(Arrays.asList(2, 3, 4, 5), rest);
+        assertFalse(spliterator.tryAdvance(i -> {}));
+        assertEquals(0, spliterator.estimateSize());
+    }
+
+    // Creates an array of elements with keys in [0, domain).
+    private static Element[] createElements(Random random, int domain) {
+        Element[] array = new Element[SIZE];
+
+        for (int i = 0; i < SIZE; ++i) {
+            array[i] = new Element(random.nextInt(domain));
+        }
+
+        return array;
+    }
+}
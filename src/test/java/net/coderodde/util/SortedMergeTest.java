@@ -0,0 +1,172 @@
+package net.coderodde.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * This class tests {@link SortedMerge}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Dec 16, 2017)
+ */
+public class SortedMergeTest {
+
+    private static final Comparator<Element> COMPARATOR =
+            Comparator.comparingInt(e -> e.key);
+
+    // An element with a key. Equal keys are told apart by identity.
+    private static final class Element {
+
+        final int key;
+
+        Element(int key) {
+            this.key = key;
+        }
+    }
+
+    @Test
+    public void mergesArraysStably() {
+        List<Element[]> arrays = createSources(new Random(1L));
+
+        assertArrayEquals(
+                expectedMerge(arrays),
+                toArray(SortedMerge.mergeArrays(arrays, COMPARATOR)));
+    }
+
+    @Test
+    public void mergesListsStably() {
+        List<Element[]> arrays = createSources(new Random(2L));
+        List<List<Element>> lists = new ArrayList<>();
+
+        for (Element[] array : arrays) {
+            lists.add(Arrays.asList(array));
+        }
+
+        assertArrayEquals(
+                expectedMerge(arrays),
+                toArray(SortedMerge.mergeLists(lists, COMPARATOR)));
+    }
+
+    @Test
+    public void mergesIteratorsStably() {
+        List<Element[]> arrays = createSources(new Random(3L));
+        List<Iterator<Element>> iterators = new ArrayList<>();
+
+        for (Element[] array : arrays) {
+            iterators.add(Arrays.asList(array).iterator());
+        }
+
+        assertArrayEquals(
+                expectedMerge(arrays),
+                toArray(SortedMerge.mergeIterators(iterators, COMPARATOR)));
+    }
+
+    @Test
+    public void mergesArraysIntoTheTarget() {
+        List<Element[]> arrays = createSources(new Random(4L));
+        Element[] expected = expectedMerge(arrays);
+        Element[] target = new Element[expected.length + 2];
+
+        SortedMerge.mergeArraysInto(arrays, COMPARATOR, target, 1);
+
+        assertNull(target[0]);
+        assertArrayEquals(expected,
+                          Arrays.copyOfRange(target, 1, target.length - 1));
+        assertNull(target[target.length - 1]);
+    }
+
+    @Test
+    public void mergesListsIntoTheTargetInNaturalOrder() {
+        List<List<Integer>> lists = Arrays.asList(Arrays.asList(1, 4, 7),
+                                                  Collections.emptyList(),
+                                                  Arrays.asList(2, 5),
+                                                  Arrays.asList(0, 3, 6));
+        Integer[] target = new Integer[8];
+
+        SortedMerge.mergeListsInto(lists, null, target, 0);
+
+        assertArrayEquals(new Integer[]{ 0, 1, 2, 3, 4, 5, 6, 7 }, target);
+    }
+
+    @Test
+    public void mergesNoSources() {
+        assertFalse(SortedMerge.mergeArrays(new ArrayList<Integer[]>(), null)
+                               .hasNext());
+        assertFalse(
+                SortedMerge.mergeIterators(new ArrayList<Iterator<Integer>>(),
+                                           null)
+                           .hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void exhaustedIteratorThrows() {
+        Iterator<Integer> iterator =
+                SortedMerge.mergeIterators(
+                        Arrays.asList(Arrays.asList(2).iterator(),
+                                      Arrays.asList(1).iterator()),
+                        null);
+        assertEquals(Integer.valueOf(1), iterator.next());
+        assertEquals(Integer.valueOf(2), iterator.next());
+        iterator.next();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsTooShortTargets() {
+        SortedMerge.mergeArraysInto(Arrays.asList(new Integer[]{ 1, 2 },
+                                                  new Integer[]{ 0 }),
+                                    null,
+                                    new Integer[2],
+                                    0);
+    }
+
+    // Returns the stable sort of the concatenation of the sources, which is
+    // what their stable merge must produce.
+    private static Element[] expectedMerge(List<Element[]> arrays) {
+        List<Element> all = new ArrayList<>();
+
+        for (Element[] array : arrays) {
+            all.addAll(Arrays.asList(array));
+        }
+
+        Element[] expected = all.toArray(new Element[all.size()]);
+        Arrays.sort(expected, COMPARATOR);
+        return expected;
+    }
+
+    // Drains the iterator into an array.
+    private static Object[] toArray(Iterator<?> iterator) {
+        List<Object> elements = new ArrayList<>();
+        iterator.forEachRemaining(elements::add);
+        return elements.toArray();
+    }
+
+    // Creates sorted sources of varying lengths, some of them empty, sharing
+    // a small key domain.
+    private static List<Element[]> createSources(Random random) {
+        List<Element[]> arrays = new ArrayList<>();
+
+        for (int i = 0; i < 20; ++i) {
+            Element[] array = new Element[i % 5 == 0 ? 0 : random.nextInt(200)];
+
+            for (int j = 0; j < array.length; ++j) {
+                array[j] = new Element(random.nextInt(30));
+            }
+
+            Arrays.sort(array, COMPARATOR);
+            arrays.add(array);
+        }
+
+        return arrays;
+    }
+}